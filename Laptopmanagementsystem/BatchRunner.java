@@ -0,0 +1,127 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Headless batch mode: applies a command file to the inventory in one pass, without any
+// prompts, and writes all output through one buffered writer. One command per line:
+//   add,brand,model,processor,ram,storage,price,qty
+//   remove,model
+//   set-qty,model,qty
+//   report
+// Blank lines and lines starting with # are ignored. All changes are applied in bulk and
+// saved as a single snapshot at the end.
+public class BatchRunner {
+    private final LaptopManagementSystem system;
+    private final PrintWriter out;
+    private int applied;
+    private int failed;
+
+    public BatchRunner(LaptopManagementSystem system, PrintWriter out) {
+        this.system = system;
+        this.out = out;
+    }
+
+    // Entry point for Main --batch; returns the number of failed commands
+    public static int run(String commandFile) {
+        LaptopManagementSystem system = new LaptopManagementSystem();
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16), false);
+        BatchRunner runner = new BatchRunner(system, out);
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(commandFile), StandardCharsets.UTF_8)) {
+            runner.run(in);
+        } catch (IOException e) {
+            out.println("Batch failed: " + e.getMessage());
+            runner.failed++;
+        } finally {
+            // flushes the journal, stops the snapshot writer and writes the metrics
+            system.close();
+            out.flush();
+        }
+        return runner.failed;
+    }
+
+    public void run(Reader commands) throws IOException {
+        BufferedReader in = (commands instanceof BufferedReader) ? (BufferedReader) commands : new BufferedReader(commands);
+        IOException[] readError = new IOException[1];
+        IOException saveError = null;
+        try {
+            system.applyInBulk(() -> {
+                try {
+                    applyAll(in);
+                } catch (IOException e) {
+                    readError[0] = e;
+                }
+            });
+        } catch (IOException e) {
+            saveError = e;
+        }
+        if (readError[0] != null) throw readError[0];
+        out.print("Applied " + applied + " command(s), " + failed + " failed. ");
+        if (saveError == null) {
+            out.println("Data saved.");
+        } else {
+            // the changes are still in memory only; count the save as a failed command
+            failed++;
+            out.println("Failed to save data: " + saveError.getMessage());
+        }
+    }
+
+    private void applyAll(BufferedReader in) throws IOException {
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            try {
+                execute(trimmed.split(",", -1));
+                applied++;
+            } catch (RuntimeException e) {
+                failed++;
+                out.println("Line " + lineNo + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void execute(String[] parts) {
+        String command = parts[0].trim().toLowerCase();
+        switch (command) {
+            case "add" -> {
+                expect(parts, 8, "add,brand,model,processor,ram,storage,price,qty");
+                Laptop l = new Laptop(parts[1].trim(), parts[2].trim(), parts[3].trim(),
+                        Integer.parseInt(parts[4].trim()), Integer.parseInt(parts[5].trim()),
+                        Double.parseDouble(parts[6].trim()), Integer.parseInt(parts[7].trim()));
+                if (!system.addLaptop(l)) throw new IllegalArgumentException("model already exists: " + l.getModel());
+            }
+            case "remove" -> {
+                expect(parts, 2, "remove,model");
+                if (!system.removeLaptop(parts[1].trim())) throw new IllegalArgumentException("laptop not found: " + parts[1].trim());
+            }
+            case "set-qty" -> {
+                expect(parts, 3, "set-qty,model,qty");
+                if (!system.setQuantity(parts[1].trim(), Integer.parseInt(parts[2].trim()))) {
+                    throw new IllegalArgumentException("laptop not found: " + parts[1].trim());
+                }
+            }
+            case "report" -> {
+                InventoryStats.Totals totals = system.getTotals();
+                out.println("--- Summary Report ---");
+                out.println("Total Laptops: " + totals.getCount());
+                out.println("Total Stock Value: Rs. " + totals.getStockValue());
+                out.printf("Average laptop price: Rs. %.2f%n", totals.getAveragePrice());
+            }
+            default -> throw new IllegalArgumentException("unknown command: " + parts[0].trim());
+        }
+    }
+
+    private static void expect(String[] parts, int fields, String usage) {
+        if (parts.length != fields) throw new IllegalArgumentException("expected " + usage);
+    }
+}
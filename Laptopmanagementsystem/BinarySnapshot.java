@@ -0,0 +1,263 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fixed-layout binary snapshot of the inventory, read through a memory-mapped file.
+//
+// Layout (little-endian):
+//   header  (32 bytes) : magic, version, record count, string count, string table offset (long), 8 reserved
+//   records (32 bytes each, starting at byte 32):
+//       brand id, model id, processor id, ram, storage, quantity (ints), price in paise (long)
+//   string table       : int[string count] offsets into the data, then each string as
+//                        int byte length + UTF-8 bytes
+//
+// Opening a snapshot only maps the file. Numeric fields are read straight from the mapping,
+// strings are decoded the first time an id is used (so a brand shared by many rows is one
+// String), and a Laptop is only built when get(i) asks for that row.
+public class BinarySnapshot {
+    private static final int MAGIC = 0x4C415042; // "LAPB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 32;
+
+    private final MappedByteBuffer buf;
+    private final int count;
+    private final int stringCount;
+    private final int stringOffsetsAt;
+    private final int stringDataAt;
+    private final String[] strings;
+    private final Laptop[] materialized;
+
+    private BinarySnapshot(MappedByteBuffer buf) throws IOException {
+        this.buf = buf;
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.capacity() < HEADER_BYTES || buf.getInt(0) != MAGIC) {
+            throw new IOException("not a laptop snapshot file");
+        }
+        if (buf.getInt(4) != VERSION) throw new IOException("unsupported snapshot version " + buf.getInt(4));
+        this.count = buf.getInt(8);
+        this.stringCount = buf.getInt(12);
+        long tableAt = buf.getLong(16);
+        if (count < 0 || stringCount < 0 || tableAt != HEADER_BYTES + (long) count * RECORD_BYTES
+                || tableAt + 4L * stringCount > buf.capacity()) {
+            throw new IOException("corrupt snapshot header");
+        }
+        this.stringOffsetsAt = (int) tableAt;
+        this.stringDataAt = stringOffsetsAt + 4 * stringCount;
+        this.strings = new String[stringCount];
+        this.materialized = new Laptop[count];
+    }
+
+    // Maps the file; nothing is decoded yet. Files over 2 GB are not supported by a single mapping.
+    public static BinarySnapshot open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("snapshot larger than 2 GB");
+            return new BinarySnapshot(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public int size() { return count; }
+
+    private int at(int row, int field) {
+        if (row < 0 || row >= count) throw new IndexOutOfBoundsException("row " + row);
+        return HEADER_BYTES + row * RECORD_BYTES + field;
+    }
+
+    public int ram(int row) { return buf.getInt(at(row, 12)); }
+    public int storage(int row) { return buf.getInt(at(row, 16)); }
+    public int quantity(int row) { return buf.getInt(at(row, 20)); }
+    public long priceCents(int row) { return buf.getLong(at(row, 24)); }
+    public String brand(int row) { return string(buf.getInt(at(row, 0))); }
+    public String model(int row) { return string(buf.getInt(at(row, 4))); }
+    public String processor(int row) { return string(buf.getInt(at(row, 8))); }
+
+    // Model name decoded without caching it, for callers that copy every row elsewhere
+    public String modelUncached(int row) {
+        int id = buf.getInt(at(row, 4));
+        return (strings[id] != null) ? strings[id] : decode(id);
+    }
+
+    private String string(int id) {
+        if (id < 0 || id >= stringCount) throw new IllegalStateException("bad string id " + id);
+        String s = strings[id];
+        if (s == null) {
+            s = decode(id);
+            strings[id] = s;
+        }
+        return s;
+    }
+
+    private String decode(int id) {
+        if (id < 0 || id >= stringCount) throw new IllegalStateException("bad string id " + id);
+        int pos = stringDataAt + buf.getInt(stringOffsetsAt + 4 * id);
+        byte[] bytes = new byte[buf.getInt(pos)];
+        buf.get(pos + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Builds (once) the Laptop for a row
+    public Laptop get(int row) {
+        Laptop l = materialized[row];
+        if (l == null) {
+            l = new Laptop(brand(row), model(row), processor(row), ram(row), storage(row),
+                    priceCents(row) / 100.0, quantity(row));
+            materialized[row] = l;
+        }
+        return l;
+    }
+
+    // List view that materializes rows only as they are accessed
+    public List<Laptop> asList() {
+        return new AbstractList<Laptop>() {
+            @Override
+            public Laptop get(int index) { return BinarySnapshot.this.get(index); }
+
+            @Override
+            public int size() { return count; }
+        };
+    }
+
+    // Writes items (with the given quantities) to a temp file, fsyncs and renames it over file
+    public static void write(Path file, Laptop[] items, int[] quantities) throws IOException {
+        write(file, items.length, new Rows() {
+            @Override
+            public String brand(int i) { return items[i].getBrand(); }
+            @Override
+            public String model(int i) { return items[i].getModel(); }
+            @Override
+            public String processor(int i) { return items[i].getProcessor(); }
+            @Override
+            public int ram(int i) { return items[i].getRam(); }
+            @Override
+            public int storage(int i) { return items[i].getStorage(); }
+            @Override
+            public int quantity(int i) { return quantities[i]; }
+            @Override
+            public long priceCents(int i) { return InventoryStats.toCents(items[i].getPrice()); }
+        });
+    }
+
+    // Writes every row of an InventoryStore, reading it row by row (nothing is materialized)
+    public static void write(Path file, InventoryStore store) throws IOException {
+        write(file, store.size(), new Rows() {
+            @Override
+            public String brand(int i) { return store.brand(i); }
+            @Override
+            public String model(int i) { return store.model(i); }
+            @Override
+            public String processor(int i) { return store.processor(i); }
+            @Override
+            public int ram(int i) { return store.ram(i); }
+            @Override
+            public int storage(int i) { return store.storage(i); }
+            @Override
+            public int quantity(int i) { return store.quantity(i); }
+            @Override
+            public long priceCents(int i) { return store.priceCents(i); }
+        });
+    }
+
+    private interface Rows {
+        String brand(int i);
+        String model(int i);
+        String processor(int i);
+        int ram(int i);
+        int storage(int i);
+        int quantity(int i);
+        long priceCents(int i);
+    }
+
+    // Models are unique, so row i's model is string id i and only brands and processors go
+    // through the dedup map (ids count, count + 1, ...). The string table is streamed in two
+    // passes over the rows - lengths/offsets, then bytes - so no model bytes are held at once.
+    private static void write(Path file, int count, Rows rows) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<String, Integer> ids = new HashMap<>();
+        List<byte[]> table = new ArrayList<>();
+        ByteBuffer out = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.position(HEADER_BYTES);
+            for (int i = 0; i < count; i++) {
+                ensure(ch, out, RECORD_BYTES);
+                out.putInt(count + id(rows.brand(i), ids, table));
+                out.putInt(i);
+                out.putInt(count + id(rows.processor(i), ids, table));
+                out.putInt(rows.ram(i));
+                out.putInt(rows.storage(i));
+                out.putInt(rows.quantity(i));
+                out.putLong(rows.priceCents(i));
+            }
+            int offset = 0;
+            for (int i = 0; i < count; i++) {
+                ensure(ch, out, 4);
+                out.putInt(offset);
+                offset += 4 + bytes(rows.model(i)).length;
+            }
+            for (byte[] s : table) {
+                ensure(ch, out, 4);
+                out.putInt(offset);
+                offset += 4 + s.length;
+            }
+            for (int i = 0; i < count; i++) put(ch, out, bytes(rows.model(i)));
+            for (byte[] s : table) put(ch, out, s);
+            drain(ch, out);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(count + table.size())
+                    .putLong(HEADER_BYTES + (long) count * RECORD_BYTES).putLong(0).flip();
+            while (header.hasRemaining()) ch.write(header, header.position());
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] bytes(String s) {
+        return ((s == null) ? "" : s).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void put(FileChannel ch, ByteBuffer out, byte[] s) throws IOException {
+        ensure(ch, out, 4);
+        out.putInt(s.length);
+        for (int p = 0; p < s.length; ) {
+            ensure(ch, out, 1);
+            int n = Math.min(out.remaining(), s.length - p);
+            out.put(s, p, n);
+            p += n;
+        }
+    }
+
+    private static int id(String s, Map<String, Integer> ids, List<byte[]> table) {
+        String key = (s == null) ? "" : s;
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = table.size();
+            ids.put(key, id);
+            table.add(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+    }
+
+    private static void ensure(FileChannel ch, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) drain(ch, out);
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) ch.write(out);
+        out.clear();
+    }
+}
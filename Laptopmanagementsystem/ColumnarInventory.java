@@ -0,0 +1,195 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Column-oriented copy of the inventory: one primitive array per attribute, with brand and
+// processor stored as StringDictionary codes. Rows are dense (a removal moves the last row
+// into the gap), so aggregate scans are tight loops over contiguous int/long arrays instead
+// of pointer-chasing through Laptop objects.
+//
+// This is the on-heap InventoryStore. It can be built from a collection, or registered as
+// an InventoryListener to mirror a LaptopManagementSystem. view(row) materializes a
+// detached Laptop on demand; changing the view's quantity does not write back - use
+// setQuantity.
+//
+// LaptopManagementSystem does not keep one: its reports read running totals (InventoryStats),
+// which cost nothing per report, and in off-heap mode they scan the OffHeapInventory rows.
+// This class is the alternative on-heap layout the benchmarks compare against.
+public class ColumnarInventory implements InventoryStore, InventoryListener {
+    private int size;
+    private int[] brand;
+    private int[] processor;
+    private String[] model;
+    private int[] ram;
+    private int[] storage;
+    private int[] quantity;
+    private long[] priceCents;
+    private final Map<String, Integer> rowOf = new HashMap<>();
+
+    public ColumnarInventory() {
+        this(16);
+    }
+
+    public ColumnarInventory(int capacity) {
+        capacity = Math.max(capacity, 16);
+        brand = new int[capacity];
+        processor = new int[capacity];
+        model = new String[capacity];
+        ram = new int[capacity];
+        storage = new int[capacity];
+        quantity = new int[capacity];
+        priceCents = new long[capacity];
+    }
+
+    public static ColumnarInventory of(Collection<Laptop> laptops) {
+        ColumnarInventory c = new ColumnarInventory(laptops.size());
+        for (Laptop l : laptops) c.add(l);
+        return c;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        int capacity = model.length * 2;
+        brand = Arrays.copyOf(brand, capacity);
+        processor = Arrays.copyOf(processor, capacity);
+        model = Arrays.copyOf(model, capacity);
+        ram = Arrays.copyOf(ram, capacity);
+        storage = Arrays.copyOf(storage, capacity);
+        quantity = Arrays.copyOf(quantity, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+    }
+
+    @Override
+    public int add(String brandName, String modelName, String processorName, int ramGb, int storageGb,
+                   long price, int qty) {
+        String key = LaptopIndex.key(modelName);
+        if (rowOf.containsKey(key)) return -1;
+        if (size == model.length) grow();
+        int row = size++;
+        brand[row] = StringDictionary.BRANDS.code(brandName);
+        processor[row] = StringDictionary.PROCESSORS.code(processorName);
+        model[row] = modelName;
+        ram[row] = ramGb;
+        storage[row] = storageGb;
+        quantity[row] = qty;
+        priceCents[row] = price;
+        rowOf.put(key, row);
+        return row;
+    }
+
+    @Override
+    public boolean remove(String modelName) {
+        Integer row = rowOf.remove(LaptopIndex.key(modelName));
+        if (row == null) return false;
+        int last = --size;
+        if (row != last) {
+            brand[row] = brand[last];
+            processor[row] = processor[last];
+            model[row] = model[last];
+            ram[row] = ram[last];
+            storage[row] = storage[last];
+            quantity[row] = quantity[last];
+            priceCents[row] = priceCents[last];
+            rowOf.put(LaptopIndex.key(model[row]), row);
+        }
+        model[last] = null;
+        return true;
+    }
+
+    @Override
+    public int rowOf(String modelName) {
+        Integer row = rowOf.get(LaptopIndex.key(modelName));
+        return (row == null) ? -1 : row;
+    }
+
+    @Override
+    public boolean setQuantity(String modelName, int qty) {
+        int row = rowOf(modelName);
+        if (row < 0) return false;
+        quantity[row] = qty;
+        return true;
+    }
+
+    public String brand(int row) { return StringDictionary.BRANDS.value(brand[row]); }
+    public String model(int row) { return model[row]; }
+    public String processor(int row) { return StringDictionary.PROCESSORS.value(processor[row]); }
+    public int ram(int row) { return ram[row]; }
+    public int storage(int row) { return storage[row]; }
+    public int quantity(int row) { return quantity[row]; }
+    public long priceCents(int row) { return priceCents[row]; }
+
+    @Override
+    public int[] rowsOfBrand(String brandName) {
+        boolean[] match = StringDictionary.BRANDS.matching(brandName);
+        int[] rows = new int[countByBrand(match)];
+        for (int i = 0, n = 0; i < size; i++) if (match[brand[i]]) rows[n++] = i;
+        return rows;
+    }
+
+    // --- Aggregates: single passes over primitive columns ---
+    @Override
+    public long totalStockValueCents() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += priceCents[i] * quantity[i];
+        return total;
+    }
+
+    @Override
+    public long totalPriceCents() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += priceCents[i];
+        return total;
+    }
+
+    @Override
+    public double averagePrice() {
+        return (size == 0) ? 0 : totalPriceCents() / 100.0 / size;
+    }
+
+    @Override
+    public long totalUnits() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += quantity[i];
+        return total;
+    }
+
+    @Override
+    public int countByBrand(String brandName) {
+        return countByBrand(StringDictionary.BRANDS.matching(brandName));
+    }
+
+    private int countByBrand(boolean[] match) {
+        int count = 0;
+        for (int i = 0; i < size; i++) if (match[brand[i]]) count++;
+        return count;
+    }
+
+    // Stock value per brand in one pass, indexed by StringDictionary.BRANDS code
+    public long[] stockValueCentsByBrand() {
+        long[] totals = new long[StringDictionary.BRANDS.size()];
+        for (int i = 0; i < size; i++) totals[brand[i]] += priceCents[i] * quantity[i];
+        return totals;
+    }
+
+    // --- InventoryListener: keep a live mirror of a LaptopManagementSystem ---
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        add(laptop);
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        remove(laptop.getModel());
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        setQuantity(laptop.getModel(), laptop.getQuantity());
+    }
+}
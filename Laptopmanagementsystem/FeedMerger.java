@@ -0,0 +1,304 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Sorts and dedups supplier feeds (laptops.csv format) that may not fit in memory, with an
+// external merge sort. Rows are read a line at a time into a run of bounded size; a full run
+// is sorted by model (case-insensitive, then input order), deduped and spilled to a file.
+// The spill files are then merged FAN_IN at a time - in extra passes if there are more than
+// that - and the last merge hands the rows out one by one in model order through next().
+//
+// When a model appears more than once (within a feed or across feeds), the row read last
+// wins. Memory use is one run plus FAN_IN read buffers, whatever the size of the input.
+// Rows are checked like loadFromFile: blank lines and lines with fewer than 7 fields are
+// ignored, negative numbers drop the row, and unparsable fields count as bad lines.
+public class FeedMerger implements Closeable {
+    public static final long DEFAULT_RUN_BYTES = 32L << 20;
+    private static final int FAN_IN = 64;
+    private static final int BUFFER = 1 << 16;
+    private static final int MAX_MESSAGES = 20;
+
+    // One parsed row; seq is its position in the input, so later rows sort after earlier ones
+    private static final class Row {
+        final String key;
+        final long seq;
+        final String brand, model, processor;
+        final int ram, storage, quantity;
+        final double price;
+
+        Row(long seq, String brand, String model, String processor, int ram, int storage, double price, int quantity) {
+            this.key = LaptopIndex.key(model);
+            this.seq = seq;
+            this.brand = brand;
+            this.model = model;
+            this.processor = processor;
+            this.ram = ram;
+            this.storage = storage;
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        // Rough heap size: object headers and fields plus the four strings
+        long bytes() {
+            return 200 + key.length() + brand.length() + model.length() + processor.length();
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeBoolean(true);
+            out.writeLong(seq);
+            out.writeUTF(brand);
+            out.writeUTF(model);
+            out.writeUTF(processor);
+            out.writeInt(ram);
+            out.writeInt(storage);
+            out.writeDouble(price);
+            out.writeInt(quantity);
+        }
+
+        // Null at the end of the run
+        static Row read(DataInputStream in) throws IOException {
+            if (!in.readBoolean()) return null;
+            return new Row(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF(),
+                    in.readInt(), in.readInt(), in.readDouble(), in.readInt());
+        }
+
+        Laptop toLaptop() {
+            return new Laptop(brand, model, processor, ram, storage, price, quantity);
+        }
+    }
+
+    private static final Comparator<Row> ORDER = Comparator.<Row, String>comparing(r -> r.key).thenComparingLong(r -> r.seq);
+
+    // A spill file being read, positioned on its next row
+    private static final class Cursor implements Closeable {
+        final DataInputStream in;
+        Row row;
+
+        Cursor(Path file) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER));
+            row = Row.read(in);
+        }
+
+        void advance() throws IOException {
+            row = Row.read(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private final Path spillDir;
+    private final long runBytes;
+    private final List<Row> run = new ArrayList<>();
+    private long runSize;
+    private final List<Path> spills = new ArrayList<>();
+    private int spillCount;
+    private long seq;
+
+    // Set once the merge has started
+    private boolean merging;
+    private List<Cursor> cursors;
+    private PriorityQueue<Cursor> heads;
+    private int runIndex;
+
+    private long rows;
+    private long duplicates;
+    private long badLines;
+    private int passes;
+    private final List<String> messages = new ArrayList<>();
+
+    // Spill files go to a new directory under parent, removed again by close()
+    public FeedMerger(Path parent, long runBytes) throws IOException {
+        this.spillDir = Files.createTempDirectory(parent, "import-");
+        this.runBytes = Math.max(1 << 16, runBytes);
+    }
+
+    // --- Reading ---
+    public void read(Path feed) throws IOException {
+        if (merging) throw new IllegalStateException("feeds must be read before merging");
+        try (BufferedReader br = Files.newBufferedReader(feed, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNo = 0;
+            while ((line = br.readLine()) != null) {
+                lineNo++;
+                if (line.trim().isEmpty()) continue;
+                String[] parts = line.split(",", -1);
+                if (parts.length < 7) continue;
+                Row row;
+                try {
+                    int ram = Integer.parseInt(parts[3]);
+                    int storage = Integer.parseInt(parts[4]);
+                    double price = Double.parseDouble(parts[5]);
+                    int qty = Integer.parseInt(parts[6]);
+                    if (ram < 0 || storage < 0 || price < 0 || qty < 0) continue;
+                    row = new Row(seq++, parts[0], parts[1], parts[2], ram, storage, price, qty);
+                } catch (NumberFormatException e) {
+                    badLines++;
+                    if (messages.size() < MAX_MESSAGES) {
+                        messages.add("Skipping bad line " + lineNo + " in " + feed.getFileName() + ": " + e.getMessage());
+                    }
+                    continue;
+                }
+                rows++;
+                run.add(row);
+                runSize += row.bytes();
+                if (runSize >= runBytes) spill();
+            }
+        }
+    }
+
+    // Sorts the run and keeps the last row of each model
+    private List<Row> sortedRun() {
+        run.sort(ORDER);
+        List<Row> unique = new ArrayList<>(run.size());
+        for (int i = 0; i < run.size(); i++) {
+            if (i + 1 < run.size() && run.get(i + 1).key.equals(run.get(i).key)) {
+                duplicates++;
+                continue;
+            }
+            unique.add(run.get(i));
+        }
+        run.clear();
+        runSize = 0;
+        return unique;
+    }
+
+    private void spill() throws IOException {
+        List<Row> sorted = sortedRun();
+        if (sorted.isEmpty()) return;
+        try (DataOutputStream out = newSpill()) {
+            for (Row r : sorted) r.write(out);
+            out.writeBoolean(false);
+        }
+    }
+
+    private DataOutputStream newSpill() throws IOException {
+        Path file = spillDir.resolve(String.format("run-%05d.bin", spillCount++));
+        spills.add(file);
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER));
+    }
+
+    // --- Merging ---
+    // The next laptop in model order with duplicates removed, or null when all are handed out
+    public Laptop next() throws IOException {
+        if (!merging) startMerge();
+        if (heads == null) {
+            // everything fit in one run: no spill files
+            return (runIndex < run.size()) ? run.get(runIndex++).toLaptop() : null;
+        }
+        Row winner = nextUnique();
+        return (winner == null) ? null : winner.toLaptop();
+    }
+
+    private void startMerge() throws IOException {
+        merging = true;
+        if (spills.isEmpty()) {
+            List<Row> sorted = sortedRun();
+            run.addAll(sorted);
+            return;
+        }
+        spill();
+        // Extra passes until the remaining runs can be merged at once
+        while (spills.size() > FAN_IN) {
+            passes++;
+            List<Path> inputs = new ArrayList<>(spills);
+            spills.clear();
+            for (int from = 0; from < inputs.size(); from += FAN_IN) {
+                List<Path> group = inputs.subList(from, Math.min(from + FAN_IN, inputs.size()));
+                open(group);
+                try (DataOutputStream out = newSpill()) {
+                    Row r;
+                    while ((r = nextUnique()) != null) r.write(out);
+                    out.writeBoolean(false);
+                } finally {
+                    closeCursors();
+                }
+                for (Path p : group) Files.delete(p);
+            }
+        }
+        passes++;
+        open(spills);
+    }
+
+    private void open(List<Path> files) throws IOException {
+        cursors = new ArrayList<>(files.size());
+        heads = new PriorityQueue<>(Math.max(1, files.size()), (a, b) -> ORDER.compare(a.row, b.row));
+        for (Path f : files) {
+            Cursor c = new Cursor(f);
+            cursors.add(c);
+            if (c.row != null) heads.add(c);
+        }
+    }
+
+    // Smallest model across the open runs; of equal models the one read last wins
+    private Row nextUnique() throws IOException {
+        if (heads.isEmpty()) return null;
+        Row winner = null;
+        do {
+            Cursor c = heads.poll();
+            if (winner != null) duplicates++;
+            winner = c.row;
+            c.advance();
+            if (c.row != null) heads.add(c);
+        } while (!heads.isEmpty() && heads.peek().row.key.equals(winner.key));
+        return winner;
+    }
+
+    private void closeCursors() throws IOException {
+        if (cursors == null) return;
+        for (Cursor c : cursors) c.close();
+        cursors = null;
+    }
+
+    // --- Results ---
+    // What an import did: counts from reading and merging the feeds, plus what the inventory
+    // made of the unique rows
+    public static class Summary {
+        public final long rows, duplicates, badLines;
+        public final int spillFiles, mergePasses;
+        public final long added, updated, unchanged;
+        public final List<String> messages;   // the first few bad lines
+
+        Summary(FeedMerger m, long added, long updated, long unchanged) {
+            rows = m.rows;
+            duplicates = m.duplicates;
+            badLines = m.badLines;
+            spillFiles = m.spillCount;
+            mergePasses = m.passes;
+            messages = new ArrayList<>(m.messages);
+            this.added = added;
+            this.updated = updated;
+            this.unchanged = unchanged;
+        }
+    }
+
+    public Summary summary(long added, long updated, long unchanged) {
+        return new Summary(this, added, updated, unchanged);
+    }
+
+    // Deletes the spill files
+    @Override
+    public void close() throws IOException {
+        closeCursors();
+        run.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDir)) {
+            for (Path f : files) Files.delete(f);
+        }
+        Files.delete(spillDir);
+    }
+}
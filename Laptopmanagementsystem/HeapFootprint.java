@@ -0,0 +1,60 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+// Estimates how many heap bytes each laptop record costs, comparing the current layout
+// (brand and processor shared through StringDictionary) with every record owning its own
+// three Strings. Sizes assume a 64-bit JVM with compressed oops and compact (Latin-1)
+// strings: 12-byte object headers, 4-byte references, 8-byte alignment.
+public final class HeapFootprint {
+    private static final int LAPTOP_BYTES = align(12 + 4 + 4 + 8 + 4 + 4 + 4 + 4 + 4); // Product + Laptop fields
+    private static final int STRING_BYTES = align(12 + 4 + 4 + 1 + 1);                  // value, hash, coder, hashIsZero
+
+    public static final class Report {
+        public final int records;
+        public final long bytesBefore;
+        public final long bytesAfter;
+        public final int distinctStrings;
+
+        Report(int records, long bytesBefore, long bytesAfter, int distinctStrings) {
+            this.records = records;
+            this.bytesBefore = bytesBefore;
+            this.bytesAfter = bytesAfter;
+            this.distinctStrings = distinctStrings;
+        }
+
+        public double perRecordBefore() { return records == 0 ? 0 : (double) bytesBefore / records; }
+        public double perRecordAfter() { return records == 0 ? 0 : (double) bytesAfter / records; }
+    }
+
+    private HeapFootprint() {
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    static long stringBytes(String s) {
+        if (s == null) return 0;
+        int len = s.length();
+        boolean latin1 = s.chars().allMatch(c -> c < 256);
+        int arrayBytes = align(16 + (latin1 ? len : 2 * len));
+        return STRING_BYTES + arrayBytes;
+    }
+
+    public static Report measure(Collection<Laptop> laptops) {
+        long before = 0;
+        long after = 0;
+        Set<String> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Laptop l : laptops) {
+            before += LAPTOP_BYTES + stringBytes(l.getBrand()) + stringBytes(l.getModel()) + stringBytes(l.getProcessor());
+            after += LAPTOP_BYTES;
+            for (String s : new String[]{l.getBrand(), l.getModel(), l.getProcessor()}) {
+                if (s != null && seen.add(s)) after += stringBytes(s);
+            }
+        }
+        return new Report(laptops.size(), before, after, seen.size());
+    }
+}
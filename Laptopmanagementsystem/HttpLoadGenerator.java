@@ -0,0 +1,197 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Load check for InventoryHttpService: starts the service on a fresh inventory of MODELS
+// laptops (in a temporary data folder), then keeps the given number of clients busy for the
+// given time, each sending its next request as soon as the previous answer arrives. The mix
+// is 60% lookups by model, 20% searches, 10% price ranges, 5% reports and 5% quantity updates.
+// Clients each have their own connection, so the server sees that many concurrent sockets.
+// Any failed request, non-2xx answer or wrong quantity afterwards is a failure (exit status 1).
+//
+// Usage: java HttpLoadGenerator [clients] [seconds]
+public class HttpLoadGenerator {
+    private static final int MODELS = 2000;
+    private static final int CONNECTIONS_PER_CLIENT_POOL = 250;
+    private static final String[] BRANDS = {"Dell", "HP", "Lenovo", "Asus", "Acer", "Apple"};
+    private static final String[] SERIES = {"Latitude", "ThinkPad", "ZenBook", "MacBook Pro", "Aspire", "EliteBook"};
+    private static final String[] SEARCHES = {"latitde", "thinkpad", "zenbok", "macbook pro", "aspire", "elitebook"};
+
+    public static void main(String[] args) throws Exception {
+        // HttpClient completes every response through the common pool, which on a one-CPU
+        // machine starts a new thread per task; give it a few threads (before it is first used)
+        if (System.getProperty("java.util.concurrent.ForkJoinPool.common.parallelism") == null) {
+            System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", "4");
+        }
+        int clients = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+
+        Path dataDir = Files.createTempDirectory("lms-http-load");
+        LaptopManagementSystem system = new LaptopManagementSystem(dataDir);
+        for (int i = 0; i < MODELS; i++) {
+            system.addLaptop(new Laptop(BRANDS[i % BRANDS.length], modelName(i), "i7", 8 << (i % 3), 256 << (i % 3),
+                    40000 + (i * 37) % 90000, 100));
+        }
+        // Only client c updates modelName(c), so the last quantity each client set must stick
+        int updated = Math.min(clients, MODELS);
+        int[] lastSet = new int[updated];
+        Arrays.fill(lastSet, 100);
+
+        InventoryHttpService service = new InventoryHttpService(system, 0);
+        String base = "http://127.0.0.1:" + service.port();
+        System.out.println("Serving " + MODELS + " laptops: " + service);
+
+        // One HttpClient holds one connection per in-flight request; several clients spread
+        // the sockets so no single connection pool becomes the limit
+        // (their callbacks run on a small shared pool: with one CPU the default async executor
+        // would start a thread per response)
+        ExecutorService callbacks = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        List<HttpClient> pools = new ArrayList<>();
+        for (int i = 0; i < (clients + CONNECTIONS_PER_CLIENT_POOL - 1) / CONNECTIONS_PER_CLIENT_POOL; i++) {
+            pools.add(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .executor(callbacks).connectTimeout(Duration.ofSeconds(10)).build());
+        }
+
+        OperationMetrics metrics = new OperationMetrics();
+        OperationMetrics.Timer latency = metrics.timer("request");
+        AtomicLong failures = new AtomicLong();
+        AtomicLong firstFailureReported = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long began = System.nanoTime();
+        List<CompletableFuture<Void>> running = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            Client client = new Client(c, pools.get(c / CONNECTIONS_PER_CLIENT_POOL), base, deadline,
+                    latency, failures, firstFailureReported, (c < updated) ? lastSet : null);
+            running.add(client.next());
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).join();
+        double elapsed = (System.nanoTime() - began) / 1e9;
+        callbacks.shutdown();
+
+        // Every update went through the service; check the inventory agrees
+        int wrong = 0;
+        for (int c = 0; c < updated; c++) {
+            Laptop l = system.findByModel(modelName(c));
+            if (l == null || l.getQuantity() != lastSet[c]) wrong++;
+        }
+        service.close();
+        system.close();
+        try (var files = Files.walk(dataDir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+
+        long n = latency.getCount();
+        System.out.printf("%d clients for %.1fs: %d requests (%.0f req/s), %d failed%n",
+                clients, elapsed, n, n / elapsed, failures.get());
+        System.out.printf("Latency: mean %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latency.getMeanNanos() / 1e6, latency.percentileNanos(0.50) / 1e6,
+                latency.percentileNanos(0.99) / 1e6, latency.getMaxNanos() / 1e6);
+        System.out.println("Server: " + service + "; models with a wrong quantity: " + wrong);
+        boolean ok = failures.get() == 0 && wrong == 0 && n > 0;
+        System.out.println(ok ? "PASS" : "FAIL");
+        System.exit(ok ? 0 : 1);
+    }
+
+    // One client: a chain of requests, each started when the previous one completes
+    private static final class Client {
+        final int id;
+        final HttpClient http;
+        final String base;
+        final long deadline;
+        final OperationMetrics.Timer latency;
+        final AtomicLong failures;
+        final AtomicLong reported;
+        final int[] lastSet;   // null: this client does not update
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Client(int id, HttpClient http, String base, long deadline, OperationMetrics.Timer latency,
+               AtomicLong failures, AtomicLong reported, int[] lastSet) {
+            this.id = id;
+            this.http = http;
+            this.base = base;
+            this.deadline = deadline;
+            this.latency = latency;
+            this.failures = failures;
+            this.reported = reported;
+            this.lastSet = lastSet;
+        }
+
+        CompletableFuture<Void> next() {
+            send();
+            return done;
+        }
+
+        private void send() {
+            if (System.nanoTime() >= deadline) {
+                done.complete(null);
+                return;
+            }
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            int roll = rnd.nextInt(100);
+            int quantity = -1;
+            HttpRequest.Builder request;
+            if (roll < 60) {
+                int m = rnd.nextInt(MODELS);
+                request = get("/laptop?model=" + encode(modelName(m)));
+            } else if (roll < 80) {
+                request = (rnd.nextBoolean())
+                        ? get("/search?limit=10&q=" + encode(SEARCHES[rnd.nextInt(SEARCHES.length)]))
+                        : get("/search?limit=10&brand=" + encode(BRANDS[rnd.nextInt(BRANDS.length)]));
+            } else if (roll < 90) {
+                int min = 40000 + rnd.nextInt(80000);
+                request = get("/price-range?limit=25&min=" + min + "&max=" + (min + 5000));
+            } else if (roll < 95 || lastSet == null) {
+                request = (rnd.nextBoolean()) ? get("/report") : get("/report?brand=" + BRANDS[rnd.nextInt(BRANDS.length)]);
+            } else {
+                quantity = rnd.nextInt(200);
+                request = HttpRequest.newBuilder(URI.create(base + "/quantity"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("model=" + encode(modelName(id)) + "&quantity=" + quantity));
+            }
+            final int sent = quantity;
+            long start = System.nanoTime();
+            http.sendAsync(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        latency.stop(start);
+                        if (error != null || response.statusCode() / 100 != 2) {
+                            failures.incrementAndGet();
+                            if (reported.getAndIncrement() < 5) {
+                                System.out.println("Request failed: " + ((error != null) ? error : response.statusCode() + " " + response.body()));
+                            }
+                        } else if (sent >= 0) {
+                            lastSet[id] = sent;
+                        }
+                        send();
+                    });
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return HttpRequest.newBuilder(URI.create(base + path)).GET();
+        }
+    }
+
+    // Brand i % BRANDS.length, so "ThinkPad 7" is a Lenovo
+    private static String modelName(int m) {
+        return SERIES[m % SERIES.length] + " " + m;
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
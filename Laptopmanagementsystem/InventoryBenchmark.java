@@ -0,0 +1,191 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Smoke timer for the inventory hot paths: a quick, dependency-free look at the numbers
+// (java InventoryBenchmark) while working on the code. It runs everything in one JVM with a
+// plain System.nanoTime loop - no forks, no isolation between cases - so it is not precise
+// enough to catch regressions. Use the JMH benchmarks for that (gradle jmh, see build.gradle
+// and src/jmh). It does warm up before measuring and feeds results into a sink.
+// Queries that go through the QueryCache are timed twice: with the cache as configured
+// (mostly hits once warmed up) and with it off, which is the cost of the index itself.
+//
+// Usage: java InventoryBenchmark [size ...]      (default: 1000 10000 100000 1000000)
+// Sizes up to 10^7 work given enough heap (roughly -Xmx8g for 10^7).
+public class InventoryBenchmark {
+    private static final String[] BRANDS = {"Dell", "HP", "Lenovo", "Asus", "Acer", "Apple", "MSI",
+            "Samsung", "Microsoft", "Razer", "LG", "Huawei", "Xiaomi", "Gigabyte", "Toshiba", "Fujitsu"};
+    private static final String[] PROCESSORS = {"Intel Core i3-1215U", "Intel Core i5-1235U",
+            "Intel Core i5 12th Gen", "Intel Core i7-1260P", "Intel Core i7-13700H", "Intel Core i9-13980HX",
+            "AMD Ryzen 3 7320U", "AMD Ryzen 5 5600H", "AMD Ryzen 5 7535HS", "AMD Ryzen 7 7840HS",
+            "AMD Ryzen 9 7945HX", "Apple M2", "Apple M3 Pro", "Intel Celeron N4020"};
+    private static final long WARMUP_NANOS = 500_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+    private static final int ROUNDS = 5;
+
+    static volatile long sink;
+
+    // One benchmarked operation; run(i) performs invocation i and returns something to sink
+    private interface Case {
+        long run(int invocation) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = (args.length == 0) ? new int[]{1_000, 10_000, 100_000, 1_000_000}
+                : Stream.of(args).mapToInt(Integer::parseInt).toArray();
+        System.out.printf("%-38s %10s %14s %14s %12s%n", "benchmark", "size", "ns/op (mean)", "ns/op (best)", "ops/s");
+        for (int size : sizes) {
+            Path dir = Files.createTempDirectory("lms-bench-");
+            try {
+                runSize(size, dir);
+            } finally {
+                deleteTree(dir);
+            }
+        }
+    }
+
+    // Deterministic synthetic inventory with realistic repetition of brands and processors
+    static List<Laptop> generate(int size, long seed) {
+        Random rnd = new Random(seed);
+        int[] ram = {4, 8, 8, 16, 16, 16, 32, 64};
+        int[] storage = {128, 256, 512, 512, 1024, 2048};
+        List<Laptop> laptops = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String brand = BRANDS[rnd.nextInt(BRANDS.length)];
+            laptops.add(new Laptop(brand, brand + " Model " + i, PROCESSORS[rnd.nextInt(PROCESSORS.length)],
+                    ram[rnd.nextInt(ram.length)], storage[rnd.nextInt(storage.length)],
+                    20_000 + rnd.nextInt(30_000_000) / 100.0, rnd.nextInt(50)));
+        }
+        return laptops;
+    }
+
+    private static void runSize(int size, Path dir) throws Exception {
+        List<Laptop> data = generate(size, 42);
+        LaptopManagementSystem system = quietly(() -> new LaptopManagementSystem(dir));
+        system.applyInBulk(() -> data.forEach(system::addLaptop));
+
+        // a second directory holding only the CSV, to time the text path of loadFromFile
+        Path csvDir = Files.createDirectories(dir.resolve("csv-only"));
+        Files.copy(dir.resolve("laptops.csv"), csvDir.resolve("laptops.csv"));
+
+        Random rnd = new Random(7);
+        String[] models = new String[1024];
+        for (int i = 0; i < models.length; i++) models[i] = data.get(rnd.nextInt(size)).getModel().toUpperCase();
+        String[] processors = new String[1024];
+        for (int i = 0; i < processors.length; i++) processors[i] = data.get(rnd.nextInt(size)).getProcessor();
+
+        bench("loadFromFile (binary)", size, i -> load(dir));
+        bench("loadFromFile (csv)", size, i -> load(csvDir));
+        bench("saveToFile", size, i -> {
+            system.save();
+            return 1;
+        });
+        bench("model lookup", size, i -> system.findByModel(models[i & 1023]).getRam());
+        benchCached("brand search", size, system, i -> {
+            long n = 0;
+            for (Laptop l : system.findByBrand(BRANDS[i % BRANDS.length])) n += l.getQuantity();
+            return n;
+        });
+        bench("price sort (full walk)", size, i -> {
+            long n = 0;
+            for (Laptop l : system.laptopsByPrice()) n += l.getRam();
+            return n;
+        });
+        bench("price sort (legacy sort)", size, i -> {
+            List<Laptop> copy = new ArrayList<>(system.getLaptops());
+            copy.sort(Comparator.comparingDouble(Laptop::getPrice));
+            return copy.get(0).getRam();
+        });
+        bench("generateReport", size, i -> (long) system.getTotals().getStockValue());
+        bench("generateReport (legacy scan)", size, i ->
+                (long) system.getLaptops().stream().mapToDouble(l -> l.getPrice() * l.getQuantity()).sum());
+        ColumnarInventory columns = ColumnarInventory.of(system.getLaptops());
+        bench("stock value (columnar scan)", size, i -> columns.totalStockValueCents());
+        bench("average price (columnar)", size, i -> (long) columns.averagePrice());
+        OffHeapInventory offHeap = new OffHeapInventory(size);
+        system.getLaptops().forEach(offHeap::add);
+        bench("stock value (off-heap scan)", size, i -> offHeap.totalStockValueCents());
+        bench("model lookup (off-heap)", size, i -> offHeap.rowOf(models[i & 1023]));
+        benchCached("similar laptops (k=5)", size, system, i -> system.similarLaptops(models[i & 1023], 5).size());
+        benchCached("closest under budget (k=5)", size, system, i ->
+                system.closestUnderBudget(8 << (i % 3), 256 << (i % 4), processors[i & 1023], 40_000 + (i & 1023) * 200, 5).size());
+        benchCached("best-value report (skyline)", size, system, i -> system.bestValueLaptops().overall.size());
+        bench("compareProcessorPerformance", size, i ->
+                system.compareProcessorPerformance(processors[i & 1023], processors[(i + 1) & 1023]).length());
+        system.close();
+    }
+
+    private static long load(Path dir) throws Exception {
+        LaptopManagementSystem loaded = quietly(() -> new LaptopManagementSystem(dir));
+        loaded.close();
+        return loaded.getTotals().getCount();
+    }
+
+    private static void bench(String name, int size, Case c) throws Exception {
+        long invocation = 0;
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) sink += c.run((int) invocation++);
+
+        double best = Double.MAX_VALUE;
+        long totalOps = 0, totalNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long ops = 0;
+            long start = System.nanoTime();
+            long end = start + MEASURE_NANOS / ROUNDS;
+            long now;
+            do {
+                sink += c.run((int) invocation++);
+                ops++;
+                now = System.nanoTime();
+            } while (now < end);
+            long elapsed = now - start;
+            best = Math.min(best, (double) elapsed / ops);
+            totalOps += ops;
+            totalNanos += elapsed;
+        }
+        double mean = (double) totalNanos / totalOps;
+        System.out.printf("%-38s %10d %14.1f %14.1f %12.0f%n", name, size, mean, best, 1e9 / mean);
+    }
+
+    // Times a cached query twice: with the system's query cache as configured, then with it off
+    private static void benchCached(String name, int size, LaptopManagementSystem system, Case c) throws Exception {
+        bench(name + " (cached)", size, c);
+        QueryCache cache = system.getQueryCache();
+        int entries = cache.getMaxEntries();
+        cache.setMaxEntries(0);
+        try {
+            bench(name + " (uncached)", size, c);
+        } finally {
+            cache.setMaxEntries(entries);
+        }
+    }
+
+    private interface Loader<T> {
+        T get() throws Exception;
+    }
+
+    // Runs a load with the "Loaded N laptop(s)" console chatter switched off
+    private static <T> T quietly(Loader<T> loader) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return loader.get();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Read-mostly JSON endpoints over the inventory for other local tools, served by the JDK's
+// built-in HTTP server on the loopback interface only:
+//   GET  /search?q=thinkpad&limit=20    typo-tolerant search (or ?brand=Dell for one brand)
+//   GET  /laptop?model=X1               one laptop, 404 if there is no such model
+//   GET  /price-range?min=&max=&limit=  laptops in a price range, cheapest first
+//   GET  /report[?brand=Dell]           count, units, average price and stock value
+//   POST /quantity?model=X1&quantity=5  sets the stock of a model (parameters may also be
+//                                        sent as a form body); 409 on a read-only replica
+//   GET  /metrics                       the operation metrics as JSON
+// Each request runs on its own virtual thread where the JVM has them (Java 21+); on older
+// JVMs a fixed pool of lms.http.threads platform threads is used instead. The server keeps
+// idle keep-alive connections on one selector thread, so thousands of connected clients
+// cost sockets, not threads. Every handler is a short call into LaptopManagementSystem,
+// which does its own locking.
+public class InventoryHttpService implements Closeable {
+    private static final int BACKLOG = 4096;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_BODY = 8192;
+    private static final int POOL_THREADS = Integer.getInteger("lms.http.threads",
+            Math.max(16, 4 * Runtime.getRuntime().availableProcessors()));
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    static {
+        // The server writes the headers and the body of a response separately; without
+        // TCP_NODELAY the body waits for the client's delayed ACK (about 40 ms per request).
+        // Read once when the server classes load, so it must be set before the first create().
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final LaptopManagementSystem system;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final OperationMetrics.Timer requestTimer;
+    private long errors;
+
+    public InventoryHttpService(LaptopManagementSystem system, int port) throws IOException {
+        this.system = system;
+        this.requestTimer = system.getMetrics().timer("httpRequest");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        executor = virtualThreads ? virtual : Executors.newFixedThreadPool(POOL_THREADS);
+        server.setExecutor(executor);
+        server.createContext("/search", handler("GET", this::search));
+        server.createContext("/laptop", handler("GET", this::laptop));
+        server.createContext("/price-range", handler("GET", this::priceRange));
+        server.createContext("/report", handler("GET", this::report));
+        server.createContext("/quantity", handler("POST", this::quantity));
+        server.createContext("/metrics", handler("GET", p -> new Response(200, system.getMetrics().toJson())));
+        server.start();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() if this JVM has it, else null. Looked up
+    // reflectively so the code still compiles and runs on Java 17.
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public synchronized long errorCount() {
+        return errors;
+    }
+
+    // --- Endpoints ---
+    private static final class Response {
+        final int status;
+        final String json;
+
+        Response(int status, String json) {
+            this.status = status;
+            this.json = json;
+        }
+    }
+
+    private interface Endpoint {
+        Response handle(Map<String, String> params);
+    }
+
+    private Response search(Map<String, String> params) {
+        int limit = limit(params);
+        String brand = params.get("brand");
+        if (brand != null && !brand.isBlank()) {
+            Collection<Laptop> found = system.findByBrand(brand.trim());
+            return new Response(200, laptopsJson(found, limit));
+        }
+        String q = params.get("q");
+        if (q == null || q.isBlank()) throw new IllegalArgumentException("q or brand is required");
+        return new Response(200, laptopsJson(system.fuzzySearch(q, limit), limit));
+    }
+
+    private Response laptop(Map<String, String> params) {
+        String model = required(params, "model");
+        Laptop l = system.findByModel(model);
+        if (l == null) return error(404, "no laptop with model " + model);
+        return new Response(200, laptopJson(new StringBuilder(256), l).toString());
+    }
+
+    private Response priceRange(Map<String, String> params) {
+        double min = number(params, "min", 0);
+        double max = number(params, "max", Double.MAX_VALUE);
+        if (min < 0 || max < min) throw new IllegalArgumentException("need 0 <= min <= max");
+        return new Response(200, laptopsJson(system.laptopsInPriceRange(min, max), limit(params)));
+    }
+
+    private Response report(Map<String, String> params) {
+        String brand = params.get("brand");
+        boolean oneBrand = brand != null && !brand.isBlank();
+        InventoryStats.Totals t = oneBrand ? system.getBrandTotals(brand.trim()) : system.getTotals();
+        StringBuilder sb = new StringBuilder(160).append('{');
+        if (oneBrand) string(sb.append("\"brand\":"), brand.trim()).append(',');
+        sb.append("\"count\":").append(t.getCount())
+                .append(",\"units\":").append(t.getUnits())
+                .append(",\"averagePrice\":").append(money(t.getAveragePrice()))
+                .append(",\"stockValue\":").append(money(t.getStockValue()))
+                .append('}');
+        return new Response(200, sb.toString());
+    }
+
+    private Response quantity(Map<String, String> params) {
+        String model = required(params, "model");
+        int quantity;
+        try {
+            quantity = Integer.parseInt(required(params, "quantity").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("quantity must be a whole number");
+        }
+        if (!system.setQuantity(model, quantity)) return error(404, "no laptop with model " + model);
+        Laptop l = system.findByModel(model);
+        if (l == null) return error(404, "no laptop with model " + model);   // removed meanwhile
+        return new Response(200, laptopJson(new StringBuilder(256), l).toString());
+    }
+
+    // --- Plumbing ---
+    // Checks the method, parses the parameters and maps failures to status codes:
+    // bad input 400, read-only replica 409, anything unexpected 500
+    private HttpHandler handler(String method, Endpoint endpoint) {
+        return exchange -> {
+            long start = System.nanoTime();
+            Response response;
+            try {
+                if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    response = error(405, "use " + method);
+                } else {
+                    Map<String, String> params = new HashMap<>();
+                    parse(exchange.getRequestURI().getRawQuery(), params);
+                    if (method.equals("POST")) parse(readBody(exchange), params);
+                    response = endpoint.handle(params);
+                }
+            } catch (IllegalArgumentException e) {
+                response = error(400, e.getMessage());
+            } catch (IllegalStateException e) {
+                response = error(409, e.getMessage());
+            } catch (Exception e) {
+                synchronized (this) {
+                    errors++;
+                }
+                response = error(500, "internal error: " + e.getMessage());
+            }
+            try {
+                send(exchange, response);
+            } finally {
+                requestTimer.stop(start);
+            }
+        };
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                if (body.size() + n > MAX_BODY) throw new IllegalArgumentException("request body too large");
+                body.write(buf, 0, n);
+            }
+            return body.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    // name=value&name=value, URL-encoded; later values replace earlier ones
+    private static void parse(String encoded, Map<String, String> params) {
+        if (encoded == null || encoded.isEmpty()) return;
+        for (String pair : encoded.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = (eq < 0) ? pair : pair.substring(0, eq);
+            String value = (eq < 0) ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(name + " is required");
+        return value;
+    }
+
+    private static double number(Map<String, String> params, String name, double otherwise) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) return otherwise;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    private static int limit(Map<String, String> params) {
+        String value = params.get("limit");
+        if (value == null || value.isBlank()) return DEFAULT_LIMIT;
+        try {
+            return Math.max(1, Math.min(MAX_LIMIT, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit must be a whole number");
+        }
+    }
+
+    // --- JSON ---
+    private static Response error(int status, String message) {
+        return new Response(status, string(new StringBuilder(64).append("{\"error\":"), message).append('}').toString());
+    }
+
+    // {"count": n, "laptops": [...]}, with count the number returned (at most limit)
+    private static String laptopsJson(Iterable<Laptop> laptops, int limit) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"laptops\":[");
+        int n = 0;
+        for (Laptop l : laptops) {
+            if (n == limit) break;
+            if (n++ > 0) sb.append(',');
+            laptopJson(sb, l);
+        }
+        return sb.append("],\"count\":").append(n).append('}').toString();
+    }
+
+    private static StringBuilder laptopJson(StringBuilder sb, Laptop l) {
+        string(sb.append("{\"brand\":"), l.getBrand());
+        string(sb.append(",\"model\":"), l.getModel());
+        string(sb.append(",\"processor\":"), l.getProcessor());
+        return sb.append(",\"ram\":").append(l.getRam())
+                .append(",\"storage\":").append(l.getStorage())
+                .append(",\"price\":").append(money(l.getPrice()))
+                .append(",\"quantity\":").append(l.getQuantity())
+                .append('}');
+    }
+
+    private static String money(double v) {
+        return String.format(Locale.ROOT, "%.2f", v);
+    }
+
+    private static StringBuilder string(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"');
+    }
+
+    // Stops accepting, lets requests in progress finish (up to STOP_DELAY_SECONDS), then
+    // shuts the executor down
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HTTP service on 127.0.0.1:%d (%s), %d request(s), %d error(s)",
+                port(), virtualThreads ? "virtual threads" : POOL_THREADS + " pooled threads",
+                requestTimer.getCount(), errorCount());
+    }
+}
@@ -0,0 +1,299 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Write-ahead journal of inventory changes, stored next to the snapshot as numbered
+// segments (laptops.journal.1, laptops.journal.2, ...). One line per change:
+//   A,brand,model,processor,ram,storage,price,qty   (laptop added)
+//   R,model                                         (laptop removed)
+//   Q,model,qty                                     (quantity set)
+// Appends are queued and written by a background flusher; everything that queued up
+// while the previous fsync was running goes out in the next write + fsync (group commit).
+// Appending does not wait for the disk: callers that need a change to be durable call
+// sync() afterwards (LaptopManagementSystem does for every change unless lms.journal.async
+// is set), and concurrent callers end up sharing one fsync.
+// Records are absolute (no "+1"), so replaying a segment that the snapshot already
+// covers is harmless - this is what makes crash recovery and compaction simple.
+public class InventoryJournal implements InventoryListener, Closeable {
+
+    // Receives journal records during replay
+    public interface Target {
+        void replayAdd(Laptop laptop);
+
+        void replayRemove(String model);
+
+        void replaySetQuantity(String model, int quantity);
+    }
+
+    private final Path dir;
+    private final String baseName;
+    private final Object ioLock = new Object();
+    private StringBuilder pending = new StringBuilder();
+    private StringBuilder spare = new StringBuilder();
+    private long appended;
+    private long durable;
+    private boolean closed;
+    private IOException failure;
+    private FileChannel channel;
+    private long segmentSeq;
+    private long segmentRecords;
+    private Thread flusher;
+
+    public InventoryJournal(String baseName) {
+        Path p = Paths.get(baseName).toAbsolutePath();
+        this.dir = p.getParent();
+        this.baseName = p.getFileName().toString();
+    }
+
+    // --- Record encoding ---
+    static String escape(String s) { return (s == null) ? "" : s.replace(",", " ").replace("\n", " "); }
+
+    static String encodeAdd(Laptop l) {
+        return String.format(Locale.ROOT, "A,%s,%s,%s,%d,%d,%.2f,%d", escape(l.getBrand()), escape(l.getModel()),
+                escape(l.getProcessor()), l.getRam(), l.getStorage(), l.getPrice(), l.getQuantity());
+    }
+
+    static String encodeRemove(String model) {
+        return "R," + escape(model);
+    }
+
+    static String encodeQuantity(String model, int qty) {
+        return "Q," + escape(model) + "," + qty;
+    }
+
+    // Applies one encoded record to the target; returns false for unknown or truncated lines
+    static boolean apply(String line, Target target) {
+        String[] parts = line.split(",", -1);
+        switch (parts[0]) {
+            case "A" -> {
+                if (parts.length < 8) return false;
+                target.replayAdd(new Laptop(parts[1], parts[2], parts[3], Integer.parseInt(parts[4]),
+                        Integer.parseInt(parts[5]), Double.parseDouble(parts[6]), Integer.parseInt(parts[7])));
+            }
+            case "R" -> {
+                if (parts.length < 2) return false;
+                target.replayRemove(parts[1]);
+            }
+            case "Q" -> {
+                if (parts.length < 3) return false;
+                target.replaySetQuantity(parts[1], Integer.parseInt(parts[2]));
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Segments ---
+    private long seqOf(Path p) {
+        String name = p.getFileName().toString();
+        if (!name.startsWith(baseName + ".")) return -1;
+        try {
+            return Long.parseLong(name.substring(baseName.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(baseName + "." + seq);
+    }
+
+    // Existing segments, oldest first
+    public List<Path> segments() throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, baseName + ".*")) {
+            for (Path p : ds) if (seqOf(p) >= 0) result.add(p);
+        }
+        result.sort((a, b) -> Long.compare(seqOf(a), seqOf(b)));
+        return result;
+    }
+
+    // Replays every segment in order; returns the number of records applied
+    public int replay(Target target) throws IOException {
+        int applied = 0;
+        for (Path segment : segments()) {
+            try (BufferedReader br = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.isEmpty()) continue;
+                    try {
+                        if (apply(line, target)) applied++;
+                        else System.out.println("Skipping bad journal record: " + line);
+                    } catch (RuntimeException e) {
+                        // most likely a record torn by a crash mid-write
+                        System.out.println("Skipping bad journal record: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return applied;
+    }
+
+    // Starts a fresh segment after the existing ones (reusing the last one if it is still
+    // empty, so repeated restarts do not pile up empty files) and the background flusher
+    public void open() throws IOException {
+        List<Path> existing = segments();
+        long seq = 1;
+        if (!existing.isEmpty()) {
+            Path last = existing.get(existing.size() - 1);
+            seq = (Files.size(last) == 0) ? seqOf(last) : seqOf(last) + 1;
+        }
+        synchronized (ioLock) {
+            openSegment(seq);
+        }
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private void openSegment(long seq) throws IOException {
+        segmentSeq = seq;
+        segmentRecords = 0;
+        channel = FileChannel.open(segmentPath(seq), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public long segmentRecords() {
+        synchronized (this) {
+            return segmentRecords;
+        }
+    }
+
+    // Seals the current segment and switches to a new one. Returns the sealed segments;
+    // they may be deleted once a snapshot taken at this point is safely on disk.
+    public List<Path> rotate() throws IOException {
+        sync();
+        List<Path> sealed = new ArrayList<>();
+        synchronized (ioLock) {
+            for (Path p : segments()) if (seqOf(p) <= segmentSeq) sealed.add(p);
+            channel.close();
+            synchronized (this) {
+                openSegment(segmentSeq + 1);
+            }
+        }
+        return sealed;
+    }
+
+    public static void delete(List<Path> segments) {
+        for (Path p : segments) {
+            try {
+                Files.deleteIfExists(p);
+            } catch (IOException e) {
+                System.out.println("Failed to delete journal segment " + p + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // --- Appending ---
+    private synchronized void append(String record) {
+        if (closed) return;
+        pending.append(record).append('\n');
+        appended++;
+        segmentRecords++;
+        notifyAll();
+    }
+
+    // Blocks until everything appended so far has been written and fsynced
+    public void sync() throws IOException {
+        synchronized (this) {
+            long target = appended;
+            while (durable < target && failure == null && !(closed && flusher == null)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while syncing journal", e);
+                }
+            }
+            if (failure != null) throw failure;
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            StringBuilder batch;
+            long batchEnd;
+            synchronized (this) {
+                while (pending.length() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.length() == 0) {
+                    flusher = null;
+                    notifyAll();
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                batchEnd = appended;
+            }
+            try {
+                synchronized (ioLock) {
+                    ByteBuffer buf = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+                    while (buf.hasRemaining()) channel.write(buf);
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                System.out.println("Journal write failed: " + e.getMessage());
+            }
+            batch.setLength(0);
+            synchronized (this) {
+                spare = batch;
+                durable = batchEnd;
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        synchronized (ioLock) {
+            if (channel != null) channel.close();
+        }
+    }
+
+    // --- InventoryListener ---
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        append(encodeAdd(laptop));
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        append(encodeRemove(laptop.getModel()));
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        // Notifications for one laptop can arrive in a different order than the changes were
+        // made. Listeners run under the inventory write lock, so the current value is at least
+        // as new as any record written so far, and the last record is always the final value.
+        append(encodeQuantity(laptop.getModel(), laptop.getQuantity()));
+    }
+}
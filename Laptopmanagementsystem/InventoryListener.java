@@ -0,0 +1,10 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+
+// Receives every change applied to the inventory, in the order it was applied
+public interface InventoryListener {
+    void laptopAdded(Laptop laptop);
+
+    void laptopRemoved(Laptop laptop);
+
+    void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity);
+}
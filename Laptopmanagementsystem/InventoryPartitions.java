@@ -0,0 +1,232 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// The inventory split by brand into hash partitions, one laptops.csv-format file each, under
+// laptops.parts/ (part-000.csv ...). Every laptop of a brand lands in the same partition.
+// As a listener it marks the partitions touched by each change, so a save rewrites only those;
+// partitions are read and written in parallel.
+//
+// The manifest (partition count) is written after the partition files, so its timestamp is
+// the time of the last complete save - loadFromFile compares it with laptops.csv and
+// laptops.bin and loads whichever was written last.
+public class InventoryPartitions implements InventoryListener {
+    public static final String DIR_NAME = "laptops.parts";
+    private static final String MANIFEST = "manifest.properties";
+
+    private final Path dir;
+    private final int count;
+    private final BitSet dirty = new BitSet();
+
+    public InventoryPartitions(Path dataDir, int count) {
+        if (count < 1 || count > 1000) throw new IllegalArgumentException("partition count must be 1-1000");
+        this.dir = dataDir.resolve(DIR_NAME);
+        this.count = count;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public static int partitionOf(String brand, int count) {
+        return Math.floorMod(LaptopIndex.key(brand).hashCode(), count);
+    }
+
+    // --- Dirty tracking ---
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        markDirty(partitionOf(laptop.getBrand(), count));
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        markDirty(partitionOf(laptop.getBrand(), count));
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        markDirty(partitionOf(laptop.getBrand(), count));
+    }
+
+    private synchronized void markDirty(int partition) {
+        dirty.set(partition);
+    }
+
+    public synchronized void markAllDirty() {
+        dirty.set(0, count);
+    }
+
+    public synchronized void clearDirty() {
+        dirty.clear();
+    }
+
+    public synchronized int dirtyCount() {
+        return dirty.cardinality();
+    }
+
+    // Hands the dirty set to a save and starts a new one; give it back if the save fails
+    public synchronized BitSet takeDirty() {
+        BitSet taken = (BitSet) dirty.clone();
+        dirty.clear();
+        return taken;
+    }
+
+    public synchronized void restoreDirty(BitSet partitions) {
+        dirty.or(partitions);
+    }
+
+    // --- Saving ---
+    // Rewrites the given partitions from a consistent copy of the inventory, then the manifest;
+    // files left over from a larger partition count are removed. Returns how many were written.
+    public int write(Laptop[] items, int[] quantities, BitSet partitions) throws IOException {
+        Files.createDirectories(dir);
+        List<List<Integer>> rows = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) rows.add(partitions.get(p) ? new ArrayList<>() : null);
+        for (int i = 0; i < items.length; i++) {
+            List<Integer> part = rows.get(partitionOf(items[i].getBrand(), count));
+            if (part != null) part.add(i);
+        }
+        try {
+            partitions.stream().parallel().forEach(p -> {
+                try {
+                    writePartition(fileOf(dir, p), items, quantities, rows.get(p));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Properties manifest = new Properties();
+        manifest.setProperty("partitions", Integer.toString(count));
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            manifest.store(w, "laptop inventory partitions");
+        }
+        Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        removeExtraFiles();
+        return partitions.cardinality();
+    }
+
+    private static void writePartition(Path target, Laptop[] items, int[] quantities, List<Integer> rows) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter w = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8), 1 << 16)) {
+            StringBuilder line = new StringBuilder(128);
+            for (int i : rows) {
+                Laptop l = items[i];
+                long cents = InventoryStats.toCents(l.getPrice());
+                line.setLength(0);
+                line.append(escape(l.getBrand())).append(',')
+                        .append(escape(l.getModel())).append(',')
+                        .append(escape(l.getProcessor())).append(',')
+                        .append(l.getRam()).append(',')
+                        .append(l.getStorage()).append(',')
+                        .append(cents / 100).append('.').append(cents % 100 < 10 ? "0" : "").append(cents % 100).append(',')
+                        .append(quantities[i]).append('\n');
+                w.append(line);
+            }
+            w.flush();
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void removeExtraFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "part-*.csv")) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                try {
+                    if (Integer.parseInt(name.substring(5, name.length() - 4)) >= count) Files.delete(f);
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+    }
+
+    private static String escape(String s) {
+        return (s == null) ? "" : s.replace(",", " ");
+    }
+
+    static Path fileOf(Path dir, int partition) {
+        return dir.resolve(String.format("part-%03d.csv", partition));
+    }
+
+    // --- Loading ---
+    // Modification time of the last complete save, or -1 if there is none
+    public static long lastModified(Path dataDir) {
+        Path manifest = dataDir.resolve(DIR_NAME).resolve(MANIFEST);
+        try {
+            return Files.exists(manifest) ? Files.getLastModifiedTime(manifest).toMillis() : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Partition count recorded by the last save
+    public static int storedCount(Path dataDir) throws IOException {
+        Properties manifest = new Properties();
+        try (Reader r = Files.newBufferedReader(dataDir.resolve(DIR_NAME).resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            manifest.load(r);
+        }
+        try {
+            return Integer.parseInt(manifest.getProperty("partitions", "").trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("bad partition count in " + MANIFEST);
+        }
+    }
+
+    // The partition files of the last save, in partition order (missing ones are skipped)
+    public static List<Path> files(Path dataDir) throws IOException {
+        Path dir = dataDir.resolve(DIR_NAME);
+        List<Path> files = new ArrayList<>();
+        for (int p = 0, n = storedCount(dataDir); p < n; p++) {
+            Path f = fileOf(dir, p);
+            if (Files.exists(f)) files.add(f);
+        }
+        return files;
+    }
+
+    // Parses every partition in parallel (one file per task); rows come back in partition order
+    public static ParallelCsvLoader.Result load(Path dataDir) throws IOException {
+        List<Path> files = files(dataDir);
+        List<ParallelCsvLoader.Result> parts;
+        try {
+            parts = IntStream.range(0, files.size()).parallel().mapToObj(i -> {
+                try {
+                    return ParallelCsvLoader.load(files.get(i), 1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        List<Laptop> laptops = new ArrayList<>();
+        List<String> badLines = new ArrayList<>();
+        for (ParallelCsvLoader.Result r : parts) {
+            laptops.addAll(r.laptops);
+            badLines.addAll(r.badLines);
+        }
+        return new ParallelCsvLoader.Result(laptops, badLines);
+    }
+}
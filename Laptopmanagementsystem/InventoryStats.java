@@ -0,0 +1,154 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Running totals for reports, updated on every add/remove/quantity change.
+// Money is kept in whole paise (long) so the running sums never drift the way
+// repeated double additions and subtractions would.
+public class InventoryStats implements InventoryListener {
+
+    // Totals for one group of laptops (the whole inventory or a single brand)
+    public static class Totals {
+        private int count;
+        private long priceCents;
+        private long stockValueCents;
+        private long units;
+
+        public int getCount() { return count; }
+        public long getUnits() { return units; }
+        public double getTotalPrice() { return priceCents / 100.0; }
+        public double getStockValue() { return stockValueCents / 100.0; }
+
+        public double getAveragePrice() {
+            return (count == 0) ? 0 : priceCents / 100.0 / count;
+        }
+
+        private void add(long price, int qty, int sign) {
+            count += sign;
+            priceCents += sign * price;
+            stockValueCents += sign * price * qty;
+            units += (long) sign * qty;
+        }
+
+        private void changeQuantity(long price, int delta) {
+            stockValueCents += price * delta;
+            units += delta;
+        }
+
+        // Totals computed elsewhere (e.g. by a scan over an InventoryStore)
+        static Totals of(int count, long priceCents, long stockValueCents, long units) {
+            Totals t = new Totals();
+            t.count = count;
+            t.priceCents = priceCents;
+            t.stockValueCents = stockValueCents;
+            t.units = units;
+            return t;
+        }
+
+        // Detached copy, so a caller never sees a later change half-applied
+        Totals copy() {
+            Totals t = new Totals();
+            t.count = count;
+            t.priceCents = priceCents;
+            t.stockValueCents = stockValueCents;
+            t.units = units;
+            return t;
+        }
+
+        private boolean sameAs(Totals other) {
+            return count == other.count && priceCents == other.priceCents
+                    && stockValueCents == other.stockValueCents && units == other.units;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, avgPrice=%.2f, stockValue=%.2f, units=%d",
+                    count, getAveragePrice(), getStockValue(), units);
+        }
+    }
+
+    private final Totals overall = new Totals();
+    private final Map<String, Totals> byBrand = new HashMap<>();
+
+    static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        int qty = laptop.getQuantity();
+        laptop.countedQuantity = qty;
+        apply(laptop, qty, 1);
+    }
+
+    // Takes out what the totals counted for this laptop, not its current quantity: a reserve
+    // that lands while the laptop is being removed changes the quantity, and its notification
+    // is dropped once the laptop is gone
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        apply(laptop, laptop.countedQuantity, -1);
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        long price = toCents(laptop.getPrice());
+        int delta = newQuantity - oldQuantity;
+        laptop.countedQuantity += delta;
+        overall.changeQuantity(price, delta);
+        byBrand.computeIfAbsent(LaptopIndex.key(laptop.getBrand()), k -> new Totals()).changeQuantity(price, delta);
+    }
+
+    private void apply(Laptop laptop, int qty, int sign) {
+        long price = toCents(laptop.getPrice());
+        overall.add(price, qty, sign);
+        String brandKey = LaptopIndex.key(laptop.getBrand());
+        Totals brand = byBrand.computeIfAbsent(brandKey, k -> new Totals());
+        brand.add(price, qty, sign);
+        if (brand.count == 0) byBrand.remove(brandKey);
+    }
+
+    public Totals overall() {
+        return overall;
+    }
+
+    // Totals for one brand (case-insensitive); empty totals if the brand is unknown
+    public Totals forBrand(String brand) {
+        Totals t = byBrand.get(LaptopIndex.key(brand));
+        return (t == null) ? new Totals() : t;
+    }
+
+    public void clear() {
+        overall.count = 0;
+        overall.priceCents = 0;
+        overall.stockValueCents = 0;
+        overall.units = 0;
+        byBrand.clear();
+    }
+
+    // Self-check: recompute everything from scratch and report any difference from
+    // the running totals. Returns an empty list when nothing has drifted.
+    public List<String> verify(Collection<Laptop> laptops) {
+        InventoryStats fresh = new InventoryStats();
+        for (Laptop l : laptops) fresh.apply(l, l.getQuantity(), 1);
+
+        List<String> drift = new ArrayList<>();
+        if (!overall.sameAs(fresh.overall)) {
+            drift.add("overall: running {" + overall + "} vs recomputed {" + fresh.overall + "}");
+        }
+        for (Map.Entry<String, Totals> e : fresh.byBrand.entrySet()) {
+            Totals running = byBrand.get(e.getKey());
+            if (running == null || !running.sameAs(e.getValue())) {
+                drift.add("brand " + e.getKey() + ": running {" + running + "} vs recomputed {" + e.getValue() + "}");
+            }
+        }
+        for (String brandKey : byBrand.keySet()) {
+            if (!fresh.byBrand.containsKey(brandKey)) {
+                drift.add("brand " + brandKey + ": running totals kept for a brand with no laptops");
+            }
+        }
+        return drift;
+    }
+}
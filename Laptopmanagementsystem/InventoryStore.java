@@ -0,0 +1,48 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+
+// Row-oriented access to an inventory held outside Laptop objects (ColumnarInventory on the
+// heap, OffHeapInventory in direct memory). Rows are dense, 0..size()-1, and may move when
+// another row is removed, so callers should not keep row numbers across removals.
+// Model lookups are case-insensitive, like LaptopIndex.
+public interface InventoryStore {
+    int size();
+
+    // Returns the new row, or -1 if the model already exists
+    int add(String brand, String model, String processor, int ram, int storage, long priceCents, int quantity);
+
+    default int add(Laptop l) {
+        return add(l.getBrand(), l.getModel(), l.getProcessor(), l.getRam(), l.getStorage(),
+                InventoryStats.toCents(l.getPrice()), l.getQuantity());
+    }
+
+    boolean remove(String model);
+
+    // Row holding the model, or -1
+    int rowOf(String model);
+
+    boolean setQuantity(String model, int quantity);
+
+    String brand(int row);
+    String model(int row);
+    String processor(int row);
+    int ram(int row);
+    int storage(int row);
+    int quantity(int row);
+    long priceCents(int row);
+
+    // Detached Laptop for one row; changing it does not write back
+    default Laptop view(int row) {
+        if (row < 0 || row >= size()) throw new IndexOutOfBoundsException("row " + row);
+        return new Laptop(brand(row), model(row), processor(row), ram(row), storage(row),
+                priceCents(row) / 100.0, quantity(row));
+    }
+
+    // Rows of one brand (case-insensitive), in row order
+    int[] rowsOfBrand(String brand);
+
+    long totalStockValueCents();
+    long totalPriceCents();
+    double averagePrice();
+    long totalUnits();
+    int countByBrand(String brand);
+}
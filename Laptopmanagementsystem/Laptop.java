@@ -6,12 +6,21 @@ public public class Laptop extends Product {
     private final int storage;
 
     public Laptop(String brand, String model, String processor, int ram, int storage, double price, int quantity) {
-        super(brand, model, price, quantity);
-        this.processor = processor;
+        // brand and processor repeat across thousands of rows, so store the shared instance
+        super(StringDictionary.BRANDS.intern(brand), model, price, quantity);
+        this.processor = StringDictionary.PROCESSORS.intern(processor);
         this.ram = ram;
         this.storage = storage;
     }
 
+    // Copy with a different quantity (no quantity listener); the strings are already canonical
+    Laptop(Laptop source, int quantity) {
+        super(source.getBrand(), source.getModel(), source.getPrice(), quantity);
+        this.processor = source.processor;
+        this.ram = source.ram;
+        this.storage = source.storage;
+    }
+
     public String getProcessor() { return processor; }
     public int getRam() { return ram; }
     public int getStorage() { return storage; }
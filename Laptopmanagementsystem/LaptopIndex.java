@@ -0,0 +1,68 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Hash indexes over the inventory: unique model -> laptop, and brand -> laptops.
+// Keys are case-insensitive to match the equalsIgnoreCase lookups used by the menu.
+public class LaptopIndex {
+    private final Map<String, Laptop> byModel = new HashMap<>();
+    private final Map<String, Set<Laptop>> byBrand = new HashMap<>();
+
+    static String key(String s) {
+        return (s == null) ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Returns false (and indexes nothing) if a laptop with the same model already exists
+    public boolean add(Laptop laptop) {
+        String modelKey = key(laptop.getModel());
+        if (byModel.containsKey(modelKey)) return false;
+        byModel.put(modelKey, laptop);
+        byBrand.computeIfAbsent(key(laptop.getBrand()), k -> new LinkedHashSet<>()).add(laptop);
+        return true;
+    }
+
+    // Removes the laptop with the given model from both indexes, or returns null if absent
+    public Laptop remove(String model) {
+        Laptop laptop = byModel.remove(key(model));
+        if (laptop == null) return null;
+        String brandKey = key(laptop.getBrand());
+        Set<Laptop> sameBrand = byBrand.get(brandKey);
+        if (sameBrand != null) {
+            sameBrand.remove(laptop);
+            if (sameBrand.isEmpty()) byBrand.remove(brandKey);
+        }
+        return laptop;
+    }
+
+    public Laptop findByModel(String model) {
+        return byModel.get(key(model));
+    }
+
+    public boolean containsModel(String model) {
+        return byModel.containsKey(key(model));
+    }
+
+    public Collection<Laptop> findByBrand(String brand) {
+        Set<Laptop> sameBrand = byBrand.get(key(brand));
+        return (sameBrand == null) ? Collections.emptySet() : Collections.unmodifiableSet(sameBrand);
+    }
+
+    public int countByBrand(String brand) {
+        Set<Laptop> sameBrand = byBrand.get(key(brand));
+        return (sameBrand == null) ? 0 : sameBrand.size();
+    }
+
+    public int size() {
+        return byModel.size();
+    }
+
+    public void clear() {
+        byModel.clear();
+        byBrand.clear();
+    }
+}
@@ -1,24 +1,204 @@
 package OOP_JAVA_25-26.Laptopmanagementsystem;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 public class LaptopManagementSystem {
     private final ArrayList<Laptop> laptops = new ArrayList<>();
+    private final LaptopIndex index = new LaptopIndex();
+    private final InventoryStats stats = new InventoryStats();
+    private final PriceIndex priceIndex = new PriceIndex();
+    private final SpecQueryEngine specEngine = new SpecQueryEngine();
+    private final SimilarityIndex similarity = new SimilarityIndex();
+    private final TrigramIndex textIndex = new TrigramIndex();
+    // Immutable versions of the inventory for reports, listings and saves
+    private final VersionedInventory versions = new VersionedInventory();
+    // Results of repeated searches, dropped by the changes that affect them
+    private final QueryCache queryCache = new QueryCache(QUERY_CACHE_ENTRIES, QUERY_CACHE_WEIGHT);
+    // Changes (and taking a snapshot) hold the write lock; point lookups hold the read lock.
+    // Anything that walks the whole inventory works on a snapshot instead of holding a lock.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<InventoryListener> listeners = new ArrayList<>();
     private final Scanner scanner = new Scanner(System.in);
+    private final LaptopTable table = new LaptopTable(System.out);
+    // Call counts and latency histograms per operation, written to laptops-metrics.json on
+    // demand and on exit. Menu methods time only their work, never the time spent at a prompt.
+    private final OperationMetrics metrics = new OperationMetrics();
+    private final OperationMetrics.Timer loadTimer = metrics.timer("loadFromFile");
+    private final OperationMetrics.Timer recoverTimer = metrics.timer("recoverFromJournal");
+    private final OperationMetrics.Timer addTimer = metrics.timer("addLaptop");
+    private final OperationMetrics.Timer removeTimer = metrics.timer("removeLaptop");
+    private final OperationMetrics.Timer setQuantityTimer = metrics.timer("setQuantity");
+    private final OperationMetrics.Timer reserveTimer = metrics.timer("reserve");
+    private final OperationMetrics.Timer releaseTimer = metrics.timer("release");
+    private final OperationMetrics.Timer findModelTimer = metrics.timer("findByModel");
+    private final OperationMetrics.Timer findBrandTimer = metrics.timer("findByBrand");
+    private final OperationMetrics.Timer totalsTimer = metrics.timer("getTotals");
+    private final OperationMetrics.Timer brandTotalsTimer = metrics.timer("getBrandTotals");
+    private final OperationMetrics.Timer byPriceTimer = metrics.timer("laptopsByPrice");
+    private final OperationMetrics.Timer priceRangeTimer = metrics.timer("laptopsInPriceRange");
+    private final OperationMetrics.Timer cheapestTimer = metrics.timer("cheapestLaptops");
+    private final OperationMetrics.Timer specsTimer = metrics.timer("findBySpecs");
+    private final OperationMetrics.Timer bestValueTimer = metrics.timer("bestValueLaptops");
+    private final OperationMetrics.Timer similarTimer = metrics.timer("similarLaptops");
+    private final OperationMetrics.Timer budgetTimer = metrics.timer("closestUnderBudget");
+    private final OperationMetrics.Timer fuzzyTimer = metrics.timer("fuzzySearch");
+    private final OperationMetrics.Timer prefixTimer = metrics.timer("prefixSearch");
+    private final OperationMetrics.Timer importTimer = metrics.timer("importFromCsv");
+    private final OperationMetrics.Timer bulkTimer = metrics.timer("applyInBulk");
+    private final OperationMetrics.Timer saveTimer = metrics.timer("save");
+    private final OperationMetrics.Timer compactTimer = metrics.timer("backgroundCompaction");
+    private final OperationMetrics.Timer pageTimer = metrics.timer("printPage");
+    private final OperationMetrics.Timer reportTimer = metrics.timer("generateReport");
+    private final OperationMetrics.Timer compareTimer = metrics.timer("compareLaptops");
+    private final OperationMetrics.Timer footprintTimer = metrics.timer("heapFootprintReport");
     private static final String FILE_NAME = "laptops.csv";
+    private static final String SNAPSHOT_NAME = "laptops.bin";
+    // CSV files at least this big are parsed on all cores by ParallelCsvLoader
+    private static final long PARALLEL_LOAD_BYTES = 4L << 20;
+    // Run with -Dlms.import.runBytes=N to change how much of a feed import sorts in memory
+    // before spilling to disk
+    private static final long IMPORT_RUN_BYTES = Long.getLong("lms.import.runBytes", FeedMerger.DEFAULT_RUN_BYTES);
+    private static final String JOURNAL_NAME = "laptops.journal";
+    private static final String METRICS_NAME = "laptops-metrics.json";
+    // Replication position (epoch, LSN) the saved copy of a replica is current to
+    private static final String REPLICA_STATE_NAME = "laptops.replica";
+    // Journal records in the current segment that trigger a background snapshot (compaction)
+    private static final int COMPACT_AFTER = 10_000;
+    private static final int RECOMMENDATIONS = 5;
+    private static final int SUGGESTIONS = 5;
+    private static final int PAGE_SIZE = 25;
+    private static final String READ_ONLY_MESSAGE = "This terminal is a read-only replica; make changes on the primary.";
+    // Run with -Dlms.selfcheck=true to recompute report totals from scratch and flag drift
+    private static final boolean SELF_CHECK = Boolean.getBoolean("lms.selfcheck");
+    // Run with -Dlms.partitions=N to save into N brand partitions (laptops.parts/) instead of
+    // laptops.csv + laptops.bin; only partitions with changes are rewritten
+    private static final int PARTITIONS = Integer.getInteger("lms.partitions", 0);
+    // Run with -Dlms.querycache=N to cache up to N query results (0 turns the cache off);
+    // together they hold at most QUERY_CACHE_WEIGHT laptops
+    private static final int QUERY_CACHE_ENTRIES = Integer.getInteger("lms.querycache", 256);
+    private static final long QUERY_CACHE_WEIGHT = 1L << 20;
+    // Changes made through the programmatic API return once the journal has fsynced them.
+    // Run with -Dlms.journal.async=true to return as soon as they are queued instead: faster,
+    // but a crash can lose the last few milliseconds of changes.
+    private static final boolean ASYNC_JOURNAL = Boolean.getBoolean("lms.journal.async");
+
+    private final Path dataDir;
+    private final InventoryJournal journal;
+    private final InventoryPartitions partitions;   // null when saving to laptops.csv
+    // Off-heap mode (java Main --offheap): the rows live in this store instead of Laptop
+    // objects and the on-heap indexes stay empty. Lookups, quantity updates and reports run
+    // against the store and every change is journaled as usual; queries that need the
+    // indexes are unavailable. null in the normal mode.
+    private final OffHeapInventory store;
+    // At most one of these is set: this terminal ships its changes to replicas, or it is a
+    // read-only copy of another terminal
+    private volatile ReplicationPrimary primary;
+    private volatile ReplicationReplica replica;
+    private boolean journalOpen;
+    // Depth of applyInBulk calls on the current thread; changes made inside one are covered by
+    // the snapshot it ends with, so they skip the journal
+    private final ThreadLocal<int[]> bulkDepth = ThreadLocal.withInitial(() -> new int[1]);
+    // The journal's place in the listener list. Listeners run on the thread that made the
+    // change, so a bulk caller's changes are left out while other threads keep journaling.
+    private final InventoryListener journalFeed = new InventoryListener() {
+        @Override
+        public void laptopAdded(Laptop laptop) {
+            if (!inBulk()) journal.laptopAdded(laptop);
+        }
+
+        @Override
+        public void laptopRemoved(Laptop laptop) {
+            if (!inBulk()) journal.laptopRemoved(laptop);
+        }
+
+        @Override
+        public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+            if (!inBulk()) journal.quantityChanged(laptop, oldQuantity, newQuantity);
+        }
+    };
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    // Single thread, so snapshots (background compaction and saveToFile) never overlap
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "snapshot-writer");
+        t.setDaemon(true);
+        return t;
+    });
 
     // Constructor loads previously saved data (continues from last session)
     public LaptopManagementSystem() {
+        this(Paths.get(""));
+    }
+
+    // Keeps laptops.csv, laptops.bin and the journal in dataDir instead of the working directory
+    public LaptopManagementSystem(Path dataDir) {
+        this(dataDir, PARTITIONS);
+    }
+
+    // With partitionCount > 0, saves go to that many brand partitions under laptops.parts/
+    public LaptopManagementSystem(Path dataDir, int partitionCount) {
+        this.dataDir = dataDir;
+        this.journal = new InventoryJournal(dataDir.resolve(JOURNAL_NAME).toString());
+        this.partitions = (partitionCount > 0) ? new InventoryPartitions(dataDir, partitionCount) : null;
+        this.store = null;
+        listeners.add(stats);
+        listeners.add(priceIndex);
+        listeners.add(specEngine);
+        listeners.add(similarity);
+        listeners.add(textIndex);
+        listeners.add(versions);
+        listeners.add(queryCache);
+        if (partitions != null) listeners.add(partitions);
         loadFromFile();
+        recoverFromJournal();
+    }
+
+    // Large-catalog mode: loads the saved inventory (and replays the journal) into direct
+    // memory; only the laptops being shown are turned into Laptop objects
+    public static LaptopManagementSystem offHeap(Path dataDir) throws IOException {
+        return new LaptopManagementSystem(dataDir, OffHeapInventory.load(dataDir));
+    }
+
+    private LaptopManagementSystem(Path dataDir, OffHeapInventory store) throws IOException {
+        this.dataDir = dataDir;
+        this.journal = new InventoryJournal(dataDir.resolve(JOURNAL_NAME).toString());
+        this.partitions = null;
+        this.store = store;
+        // the store has replayed the journal already; changes are appended to it directly
+        journal.open();
+        journalOpen = true;
+        System.out.printf("Loaded %d laptop(s) off-heap (%.1f MB direct memory).%n",
+                store.size(), store.offHeapBytes() / 1048576.0);
     }
 
     // --- Safe input readers (handle non-numeric, negatives) ---
@@ -65,12 +245,137 @@ public class LaptopManagementSystem {
         }
     }
 
+    // Blank input means "no limit" and returns -1
+    private int readOptionalIntNonNegative(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            String s = scanner.nextLine().trim();
+            if (s.isEmpty()) return -1;
+            try {
+                int val = Integer.parseInt(s);
+                if (val >= 0) return val;
+                System.out.println("Value cannot be negative. Please try again.");
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid number. Please enter an integer.");
+            }
+        }
+    }
+
+    private double readOptionalDoubleNonNegative(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            String s = scanner.nextLine().trim();
+            if (s.isEmpty()) return -1;
+            try {
+                double val = Double.parseDouble(s);
+                if (val >= 0) return val;
+                System.out.println("Value cannot be negative. Please try again.");
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid number. Please enter a valid amount.");
+            }
+        }
+    }
+
     private String escape(String s) { return (s == null) ? "" : s.replace(",", " "); }
 
     // --- File persistence ---
+    // The binary snapshot is the fast startup path; laptops.csv is kept alongside it for other
+    // tools. Whichever of the two was written last is loaded, so a hand-edited CSV still wins.
+    // A partitioned save (laptops.parts/) takes part in the same comparison.
     private void loadFromFile() {
-        File f = new File(FILE_NAME);
-        if (!f.exists()) return;
+        long start = System.nanoTime();
+        try {
+            File csv = dataDir.resolve(FILE_NAME).toFile();
+            File bin = dataDir.resolve(SNAPSHOT_NAME).toFile();
+            long parts = InventoryPartitions.lastModified(dataDir);
+            boolean partitionsLoaded = parts >= 0 && parts >= csv.lastModified() && parts >= bin.lastModified()
+                    && loadFromPartitions();
+            if (partitions != null) {
+                // anything not read from a matching set of partitions is rewritten on the next save
+                if (partitionsLoaded && storedPartitionCount() == partitions.count()) partitions.clearDirty();
+                else partitions.markAllDirty();
+            }
+            if (partitionsLoaded) return;
+            if (bin.exists() && (!csv.exists() || bin.lastModified() >= csv.lastModified())) {
+                if (loadFromSnapshot(bin)) return;
+            }
+            if (csv.exists()) loadFromCsv(csv);
+        } finally {
+            loadTimer.stop(start);
+        }
+    }
+
+    private boolean loadFromPartitions() {
+        try {
+            ParallelCsvLoader.Result result = InventoryPartitions.load(dataDir);
+            result.badLines.forEach(System.out::println);
+            int skipped = insertAll(result.laptops);
+            if (skipped > 0) System.out.println("Skipped " + skipped + " duplicate model(s) in data.");
+            if (!laptops.isEmpty()) {
+                System.out.println("Loaded " + laptops.size() + " laptop(s) from " + InventoryPartitions.DIR_NAME + ".");
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Failed to load " + InventoryPartitions.DIR_NAME + ", falling back to "
+                    + FILE_NAME + ": " + e.getMessage());
+            clearInventory();
+            return false;
+        }
+    }
+
+    private int storedPartitionCount() {
+        try {
+            return InventoryPartitions.storedCount(dataDir);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Drops whatever a failed load had inserted
+    private void clearInventory() {
+        laptops.clear();
+        index.clear();
+        stats.clear();
+        priceIndex.clear();
+        specEngine.clear();
+        similarity.clear();
+        textIndex.clear();
+        versions.clear();
+        queryCache.clear();
+    }
+
+    private boolean loadFromSnapshot(File f) {
+        try {
+            BinarySnapshot snapshot = BinarySnapshot.open(f.toPath());
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (!insert(snapshot.get(i))) {
+                    System.out.println("Skipping duplicate model in data: " + snapshot.model(i));
+                }
+            }
+            if (!laptops.isEmpty()) {
+                System.out.println("Loaded " + laptops.size() + " laptop(s) from " + SNAPSHOT_NAME + ".");
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Failed to load " + SNAPSHOT_NAME + ", falling back to " + FILE_NAME + ": " + e.getMessage());
+            clearInventory();
+            return false;
+        }
+    }
+
+    private void loadFromCsv(File f) {
+        if (f.length() >= PARALLEL_LOAD_BYTES) {
+            try {
+                int skipped = insertAll(loadCsvInParallel(f));
+                if (skipped > 0) System.out.println("Skipped " + skipped + " duplicate model(s) in data.");
+                if (!laptops.isEmpty()) {
+                    System.out.println("Loaded " + laptops.size() + " laptop(s) from " + FILE_NAME + ".");
+                }
+            } catch (IOException e) {
+                System.out.println("Failed to load saved data: " + e.getMessage());
+            }
+            return;
+        }
         try (BufferedReader br = new BufferedReader(new FileReader(f))) {
             String line;
             while ((line = br.readLine()) != null) {
@@ -86,7 +391,9 @@ public class LaptopManagementSystem {
                     double price = Double.parseDouble(parts[5]);
                     int qty = Integer.parseInt(parts[6]);
                     if (ram < 0 || storage < 0 || price < 0 || qty < 0) continue;
-                    laptops.add(new Laptop(brand, model, processor, ram, storage, price, qty));
+                    if (!insert(new Laptop(brand, model, processor, ram, storage, price, qty))) {
+                        System.out.println("Skipping duplicate model in data: " + model);
+                    }
                 } catch (Exception parseEx) {
                     System.out.println("Skipping bad line in data: " + parseEx.getMessage());
                 }
@@ -99,31 +406,1046 @@ public class LaptopManagementSystem {
         }
     }
 
+    private List<Laptop> loadCsvInParallel(File f) throws IOException {
+        ParallelCsvLoader.Result result = ParallelCsvLoader.load(f.toPath());
+        result.badLines.forEach(System.out::println);
+        return result.laptops;
+    }
+
+    // Inserts in order, skipping models that already exist; returns how many were skipped
+    private int insertAll(List<Laptop> batch) {
+        int skipped = 0;
+        for (Laptop l : batch) {
+            if (!insert(l)) skipped++;
+        }
+        return skipped;
+    }
+
+    // Bulk import of supplier feeds in laptops.csv format, which may be larger than memory.
+    // FeedMerger sorts and dedups them through spill files; the unique rows are then merged
+    // in model order. The rows are not journaled one by one; a single snapshot is written at
+    // the end instead.
+    public void importFromCsv() {
+        if (offHeapUnavailable()) return;
+        if (isReadOnly()) {
+            System.out.println(READ_ONLY_MESSAGE);
+            return;
+        }
+        String paths = readNonEmptyLine("Enter CSV file(s) to import (comma separated): ");
+        List<Path> feeds = new ArrayList<>();
+        for (String path : paths.split(",")) {
+            if (path.trim().isEmpty()) continue;
+            File f = new File(path.trim());
+            if (!f.isFile()) {
+                System.out.println("File not found: " + path.trim());
+                return;
+            }
+            feeds.add(f.toPath());
+        }
+        try {
+            FeedMerger.Summary s = importFeeds(feeds);
+            s.messages.forEach(System.out::println);
+            if (s.badLines > s.messages.size()) {
+                System.out.println("... " + (s.badLines - s.messages.size()) + " more bad line(s).");
+            }
+            System.out.println("Read " + s.rows + " row(s), dropped " + s.duplicates + " duplicate model(s) (the last row wins).");
+            System.out.println("Imported " + s.added + " new laptop(s), updated " + s.updated + ", unchanged " + s.unchanged + ".");
+            if (s.spillFiles > 0) {
+                System.out.println("Sorted on disk: " + s.spillFiles + " spill file(s), " + s.mergePasses + " merge pass(es).");
+            }
+            System.out.println("Data saved to " + saveTarget() + ".");
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+
+    // Merges the feeds into the inventory: new models are added, existing ones take the
+    // feed's values (a quantity-only difference just sets the quantity)
+    public FeedMerger.Summary importFeeds(List<Path> feeds) throws IOException {
+        checkOnHeap();
+        checkWritable();
+        long start = System.nanoTime();
+        try (FeedMerger merger = new FeedMerger(dataDir.toAbsolutePath(), IMPORT_RUN_BYTES)) {
+            for (Path feed : feeds) merger.read(feed);
+            long[] counts = new long[3];   // added, updated, unchanged
+            try {
+                applyInBulk(() -> {
+                    try {
+                        Laptop row;
+                        while ((row = merger.next()) != null) counts[mergeRow(row)]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return merger.summary(counts[0], counts[1], counts[2]);
+        } finally {
+            importTimer.stop(start);
+        }
+    }
+
+    // Returns 0 if the laptop was added, 1 if an existing one was updated, 2 if unchanged
+    private int mergeRow(Laptop row) {
+        lock.writeLock().lock();
+        try {
+            Laptop existing = index.findByModel(row.getModel());
+            if (existing == null) {
+                insert(row);
+                return 0;
+            }
+            boolean sameSpecs = existing.getBrand().equals(row.getBrand())
+                    && existing.getProcessor().equals(row.getProcessor())
+                    && existing.getRam() == row.getRam() && existing.getStorage() == row.getStorage()
+                    && InventoryStats.toCents(existing.getPrice()) == InventoryStats.toCents(row.getPrice());
+            if (!sameSpecs) {
+                delete(existing.getModel());
+                insert(row);
+                return 1;
+            }
+            if (existing.getQuantity() == row.getQuantity()) return 2;
+            existing.setQuantity(row.getQuantity());
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-applies changes journaled after the last snapshot, then starts journaling new ones
+    // Applies journal (and replicated) records directly, past the read-only check
+    private final InventoryJournal.Target replayTarget = new InventoryJournal.Target() {
+        @Override
+        public void replayAdd(Laptop laptop) { insert(laptop); }
+
+        @Override
+        public void replayRemove(String model) { delete(model); }
+
+        @Override
+        public void replaySetQuantity(String model, int quantity) {
+            lock.writeLock().lock();
+            try {
+                Laptop laptop = index.findByModel(model);
+                if (laptop != null) laptop.setQuantity(quantity);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    };
+
+    private void recoverFromJournal() {
+        long start = System.nanoTime();
+        try {
+            int replayed = journal.replay(replayTarget);
+            if (replayed > 0) {
+                System.out.println("Recovered " + replayed + " unsaved change(s) from the journal.");
+            }
+            journal.open();
+            listeners.add(journalFeed);
+            journalOpen = true;
+        } catch (IOException e) {
+            System.out.println("Journal unavailable, changes will only be saved on exit: " + e.getMessage());
+        } finally {
+            recoverTimer.stop(start);
+        }
+    }
+
     public void saveToFile() {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(FILE_NAME, false))) {
-            for (Laptop l : laptops) {
+        try {
+            save();
+            System.out.println("Data saved to " + saveTarget() + ".");
+        } catch (IOException e) {
+            System.out.println("Failed to save data: " + e.getMessage());
+        }
+    }
+
+    // Dumps the operation metrics on exit; failures are reported but never stop the exit
+    public void saveMetrics() {
+        try {
+            writeMetrics();
+        } catch (IOException e) {
+            System.out.println("Failed to write metrics: " + e.getMessage());
+        }
+    }
+
+    private String saveTarget() {
+        return (partitions == null) ? FILE_NAME : InventoryPartitions.DIR_NAME;
+    }
+
+    // Writes an inventory version off the calling thread; the sealed journal segments are
+    // dropped once it is on disk. Call with the write lock held so the version and the sealed
+    // segments cover exactly the same changes.
+    private Callable<Void> snapshotTask(List<Path> sealed) {
+        VersionedInventory.Snapshot snapshot = versions.snapshot();
+        BitSet dirty = (partitions == null) ? null : partitions.takeDirty();
+        ReplicationReplica source = replica;
+        long[] position = (source == null) ? null : source.position();
+        return () -> {
+            Laptop[] items = snapshot.laptops().toArray(new Laptop[0]);
+            int[] quantities = snapshot.quantities();
+            if (partitions != null) {
+                try {
+                    partitions.write(items, quantities, dirty);
+                } catch (IOException | RuntimeException e) {
+                    partitions.restoreDirty(dirty);
+                    throw e;
+                }
+            } else {
+                // CSV first so the binary snapshot is always the newer of the two
+                writeCsv(items, quantities);
+                BinarySnapshot.write(dataDir.resolve(SNAPSHOT_NAME), items, quantities);
+            }
+            if (position != null) writeReplicaPosition(position);
+            InventoryJournal.delete(sealed);
+            return null;
+        };
+    }
+
+    // Writes to a temp file, fsyncs, then renames over the old file so a crash never
+    // leaves a half-written laptops.csv behind
+    private void writeCsv(Laptop[] items, int[] quantities) throws IOException {
+        Path target = dataDir.resolve(FILE_NAME);
+        Path tmp = dataDir.resolve(FILE_NAME + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             PrintWriter pw = new PrintWriter(new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8)))) {
+            for (int i = 0; i < items.length; i++) {
+                Laptop l = items[i];
                 pw.printf("%s,%s,%s,%d,%d,%.2f,%d%n",
                         escape(l.getBrand()), escape(l.getModel()), escape(l.getProcessor()),
-                        l.getRam(), l.getStorage(), l.getPrice(), l.getQuantity());
+                        l.getRam(), l.getStorage(), l.getPrice(), quantities[i]);
+            }
+            pw.flush();
+            if (pw.checkError()) throw new IOException("write to " + tmp + " failed");
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Off-heap saves are written straight from the store, which has no frozen versions, so the
+    // write lock is held until the files are on disk. Only the segments sealed here are dropped.
+    private void saveStore() throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<Path> sealed = journal.rotate();
+            writeCsv(store);
+            BinarySnapshot.write(dataDir.resolve(SNAPSHOT_NAME), store);
+            InventoryJournal.delete(sealed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Same line format as writeCsv(Laptop[], int[]), row by row from the store
+    private void writeCsv(InventoryStore rows) throws IOException {
+        Path target = dataDir.resolve(FILE_NAME);
+        Path tmp = dataDir.resolve(FILE_NAME + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter w = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8), 1 << 16)) {
+            StringBuilder line = new StringBuilder(128);
+            for (int row = 0; row < rows.size(); row++) {
+                long cents = rows.priceCents(row);
+                line.setLength(0);
+                line.append(escape(rows.brand(row))).append(',')
+                        .append(escape(rows.model(row))).append(',')
+                        .append(escape(rows.processor(row))).append(',')
+                        .append(rows.ram(row)).append(',')
+                        .append(rows.storage(row)).append(',')
+                        .append(cents / 100).append('.').append(cents % 100 < 10 ? "0" : "").append(cents % 100).append(',')
+                        .append(rows.quantity(row)).append('\n');
+                w.append(line);
             }
-            System.out.println("Data saved to " + FILE_NAME + ".");
+            w.flush();
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Once the current journal segment is long enough, snapshot in the background and drop
+    // the segments the snapshot covers, so startup replay stays short
+    private void maybeCompact() {
+        // (off-heap mode has no versions to snapshot in the background; its journal is
+        // compacted by save())
+        if (store != null || !journalOpen || journal.segmentRecords() < COMPACT_AFTER) return;
+        if (!compacting.compareAndSet(false, true)) return;
+        try {
+            Callable<Void> task = snapshotTask(journal.rotate());
+            snapshotWriter.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    System.out.println("Background compaction failed: " + e.getMessage());
+                } finally {
+                    compactTimer.stop(start);
+                    compacting.set(false);
+                }
+            });
         } catch (IOException e) {
-            System.out.println("Failed to save data: " + e.getMessage());
+            compacting.set(false);
+            System.out.println("Background compaction failed: " + e.getMessage());
+        }
+    }
+
+    // --- Inventory mutations (keep list and indexes in step) ---
+    private boolean insert(Laptop laptop) {
+        lock.writeLock().lock();
+        try {
+            if (store != null) {
+                if (store.add(laptop) < 0) return false;
+                journal.laptopAdded(laptop);
+                return true;
+            }
+            if (!index.add(laptop)) return false;
+            laptops.add(laptop);
+            laptop.setQuantityListener(this::onQuantityChanged);
+            for (InventoryListener l : listeners) l.laptopAdded(laptop);
+            maybeCompact();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Laptop delete(String model) {
+        lock.writeLock().lock();
+        try {
+            if (store != null) {
+                int row = store.rowOf(model);
+                if (row < 0) return null;
+                Laptop removed = store.view(row);
+                store.remove(model);
+                journal.laptopRemoved(removed);
+                return removed;
+            }
+            Laptop laptop = index.remove(model);
+            if (laptop == null) return null;
+            laptops.remove(laptop);
+            laptop.setQuantityListener(null);
+            for (InventoryListener l : listeners) l.laptopRemoved(laptop);
+            maybeCompact();
+            return laptop;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs on whichever thread changed the quantity. A change made without the write lock (a
+    // lock-free reserve) is reported after it happened, so the laptop may be gone by now.
+    private void onQuantityChanged(Product product, int oldQuantity, int newQuantity) {
+        Laptop laptop = (Laptop) product;
+        lock.writeLock().lock();
+        try {
+            if (index.findByModel(laptop.getModel()) != laptop) return;
+            for (InventoryListener l : listeners) l.quantityChanged(laptop, oldQuantity, newQuantity);
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Compares the running totals with a full recomputation (only when self-check is on)
+    private void selfCheck() {
+        if (!SELF_CHECK || store != null) return;
+        List<String> drift;
+        lock.readLock().lock();
+        try {
+            drift = stats.verify(laptops);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (drift.isEmpty()) {
+            System.out.println("Self-check: running totals match a full recomputation.");
+        } else {
+            System.out.println("Self-check: DRIFT detected in running totals!");
+            drift.forEach(d -> System.out.println("  " + d));
+        }
+    }
+
+    // --- Programmatic API (no prompts, no console output) ---
+    // Used by batch mode and other tools; the menu methods below are thin wrappers.
+    public boolean addLaptop(Laptop laptop) {
+        long start = System.nanoTime();
+        try {
+            checkWritable();
+            if (laptop.getRam() < 0 || laptop.getStorage() < 0 || laptop.getPrice() < 0 || laptop.getQuantity() < 0) {
+                throw new IllegalArgumentException("values cannot be negative");
+            }
+            if (!insert(laptop)) return false;
+            awaitDurable();
+            return true;
+        } finally {
+            addTimer.stop(start);
+        }
+    }
+
+    public boolean removeLaptop(String model) {
+        long start = System.nanoTime();
+        try {
+            checkWritable();
+            if (delete(model) == null) return false;
+            awaitDurable();
+            return true;
+        } finally {
+            removeTimer.stop(start);
+        }
+    }
+
+    // Returns false if the model does not exist
+    public boolean setQuantity(String model, int quantity) {
+        long start = System.nanoTime();
+        try {
+            checkWritable();
+            if (quantity < 0) throw new IllegalArgumentException("quantity cannot be negative");
+            if (!applyQuantity(model, quantity)) return false;
+            awaitDurable();
+            return true;
+        } finally {
+            setQuantityTimer.stop(start);
+        }
+    }
+
+    // The change and its notification happen under the write lock, so concurrent updates of
+    // one model reach the listeners in the order they were applied
+    private boolean applyQuantity(String model, int quantity) {
+        lock.writeLock().lock();
+        try {
+            if (store != null) {
+                int row = store.rowOf(model);
+                if (row < 0) return false;
+                int old = store.quantity(row);
+                store.setQuantity(model, quantity);
+                journal.quantityChanged(store.view(row), old, quantity);
+                return true;
+            }
+            Laptop laptop = index.findByModel(model);
+            if (laptop == null) return false;
+            laptop.setQuantity(quantity);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Waits for the group fsync that covers the caller's change. Called after the write lock
+    // is released, so other writers keep appending and share the same fsync.
+    private void awaitDurable() {
+        if (ASYNC_JOURNAL || !journalOpen || inBulk()) return;
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException("journal write failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Takes units out of stock; false if the model is unknown or fewer units are in stock.
+    // Many threads can reserve at once: the stock moves by a CAS on the laptop (see
+    // Product.reserve) and only the notification that follows takes the write lock.
+    public boolean reserve(String model, int units) {
+        long start = System.nanoTime();
+        try {
+            checkWritable();
+            if (units < 0) throw new IllegalArgumentException("units cannot be negative");
+            boolean reserved;
+            if (store != null) {
+                reserved = adjustStored(model, -units);
+            } else {
+                Laptop laptop = findByModel(model);
+                reserved = laptop != null && laptop.reserve(units);
+            }
+            if (reserved) awaitDurable();
+            return reserved;
+        } finally {
+            reserveTimer.stop(start);
+        }
+    }
+
+    // Puts units back into stock (a cancelled reservation or a delivery); false if the model
+    // is unknown
+    public boolean release(String model, int units) {
+        long start = System.nanoTime();
+        try {
+            checkWritable();
+            if (units < 0) throw new IllegalArgumentException("units cannot be negative");
+            if (store != null) {
+                if (!adjustStored(model, units)) return false;
+            } else {
+                Laptop laptop = findByModel(model);
+                if (laptop == null) return false;
+                laptop.release(units);
+            }
+            awaitDurable();
+            return true;
+        } finally {
+            releaseTimer.stop(start);
+        }
+    }
+
+    // Off-heap reserve/release: the store has no per-row CAS, so the change is made under the
+    // write lock
+    private boolean adjustStored(String model, int delta) {
+        lock.writeLock().lock();
+        try {
+            int row = store.rowOf(model);
+            if (row < 0) return false;
+            int old = store.quantity(row);
+            if (old + delta < 0) return false;
+            store.setQuantity(model, old + delta);
+            journal.quantityChanged(store.view(row), old, old + delta);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Laptop findByModel(String model) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (store != null) {
+                int row = store.rowOf(model);
+                return (row < 0) ? null : store.view(row);
+            }
+            return index.findByModel(model);
+        } finally {
+            lock.readLock().unlock();
+            findModelTimer.stop(start);
+        }
+    }
+
+    public Collection<Laptop> findByBrand(String brand) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (store != null) {
+                int[] rows = store.rowsOfBrand(brand);
+                return storeRows(rows, rows.length);
+            }
+            return cachedList("brand|" + LaptopIndex.key(brand), QueryCache.Dependency.onBrand(brand),
+                    () -> new ArrayList<>(index.findByBrand(brand)));
+        } finally {
+            lock.readLock().unlock();
+            findBrandTimer.stop(start);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return (store != null) ? store.size() : laptops.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Off-heap results (rows null: rows 0..count-1). Each laptop is read from the store, under
+    // the read lock, when the list is read, so a page shows the rows as they are when it is
+    // printed. Row numbers move on removal, which only the single console thread can make in
+    // this mode.
+    private List<Laptop> storeRows(int[] rows, int count) {
+        return new AbstractList<>() {
+            @Override
+            public Laptop get(int i) {
+                lock.readLock().lock();
+                try {
+                    return store.view((rows == null) ? i : rows[i]);
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private InventoryStats.Totals storeTotals(int[] rows) {
+        long priceCents = 0, stockValueCents = 0, units = 0;
+        for (int row : rows) {
+            long price = store.priceCents(row);
+            int qty = store.quantity(row);
+            priceCents += price;
+            stockValueCents += price * qty;
+            units += qty;
+        }
+        return InventoryStats.Totals.of(rows.length, priceCents, stockValueCents, units);
+    }
+
+    // Index-backed queries have nothing to search in off-heap mode
+    private void checkOnHeap() {
+        if (store != null) throw new UnsupportedOperationException("not available in off-heap mode");
+    }
+
+    // Menu version: says so and returns true when the feature is unavailable
+    private boolean offHeapUnavailable() {
+        if (store == null) return false;
+        System.out.println("Not available in off-heap mode.");
+        return true;
+    }
+
+    // A consistent copy of the laptop list, in insertion order
+    public List<Laptop> getLaptops() {
+        return snapshot().laptops();
+    }
+
+    // The inventory as of now; unaffected by later changes and safe to read from any thread
+    public VersionedInventory.Snapshot snapshot() {
+        checkOnHeap();
+        lock.readLock().lock();
+        try {
+            return versions.snapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public InventoryStats.Totals getTotals() {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (store != null) {
+                return InventoryStats.Totals.of(store.size(), store.totalPriceCents(),
+                        store.totalStockValueCents(), store.totalUnits());
+            }
+            return stats.overall().copy();
+        } finally {
+            lock.readLock().unlock();
+            totalsTimer.stop(start);
+        }
+    }
+
+    public InventoryStats.Totals getBrandTotals(String brand) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (store != null) return storeTotals(store.rowsOfBrand(brand));
+            return stats.forBrand(brand).copy();
+        } finally {
+            lock.readLock().unlock();
+            brandTotalsTimer.stop(start);
+        }
+    }
+
+    // Every laptop as of now, cheapest first (equal prices in insertion order). Only taking the
+    // snapshot needs the lock (O(n / 1024)); it is sorted after the lock is released, so writers
+    // never wait for the listing.
+    public Iterable<Laptop> laptopsByPrice() {
+        checkOnHeap();
+        long start = System.nanoTime();
+        try {
+            VersionedInventory.Snapshot snapshot = snapshot();
+            Laptop[] items = snapshot.laptops().toArray(new Laptop[0]);
+            int[] quantities = snapshot.quantities();
+            int[] order = priceOrder(items);
+            return new AbstractList<Laptop>() {
+                @Override
+                public Laptop get(int i) {
+                    int row = order[i];
+                    return new Laptop(items[row], quantities[row]);
+                }
+
+                @Override
+                public int size() {
+                    return order.length;
+                }
+            };
+        } finally {
+            byPriceTimer.stop(start);
+        }
+    }
+
+    // Positions of the laptops sorted by price in paise, ties kept in array order. Price and
+    // position are packed into one long so a primitive sort does it; prices spread too wide
+    // to pack fall back to a stable object sort.
+    private static int[] priceOrder(Laptop[] items) {
+        int n = items.length;
+        long[] cents = new long[n];
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            cents[i] = InventoryStats.toCents(items[i].getPrice());
+            min = Math.min(min, cents[i]);
+            max = Math.max(max, cents[i]);
+        }
+        int[] order = new int[n];
+        int rowBits = 32 - Integer.numberOfLeadingZeros(n);
+        if (n == 0 || 64 - Long.numberOfLeadingZeros(max - min) > 63 - rowBits) {
+            Integer[] boxed = new Integer[n];
+            for (int i = 0; i < n; i++) boxed[i] = i;
+            Arrays.sort(boxed, Comparator.comparingLong(i -> cents[i]));
+            for (int i = 0; i < n; i++) order[i] = boxed[i];
+            return order;
+        }
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = (cents[i] - min) << rowBits | i;
+        Arrays.sort(keys);
+        long rowMask = (1L << rowBits) - 1;
+        for (int i = 0; i < n; i++) order[i] = (int) (keys[i] & rowMask);
+        return order;
+    }
+
+    public Iterable<Laptop> laptopsInPriceRange(double min, double max) {
+        checkOnHeap();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return cachedList("range|" + min + "|" + max,
+                    QueryCache.Dependency.onMatching(l -> l.getPrice() >= min && l.getPrice() <= max), () -> {
+                        List<Laptop> range = new ArrayList<>();
+                        for (Laptop l : priceIndex.between(min, max)) range.add(l);
+                        return range;
+                    });
+        } finally {
+            lock.readLock().unlock();
+            priceRangeTimer.stop(start);
+        }
+    }
+
+    public List<Laptop> cheapestLaptops(int n) {
+        checkOnHeap();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            String key = "cheapest|" + n;
+            List<Laptop> hit = queryCache.get(key);
+            if (hit != null) return new ArrayList<>(hit);
+            long stamp = queryCache.stamp();
+            List<Laptop> cheapest = priceIndex.cheapest(n);
+            // only a laptop priced at or below the n-th one can change the answer
+            double ceiling = (cheapest.size() < n) ? Double.MAX_VALUE : cheapest.get(cheapest.size() - 1).getPrice();
+            queryCache.put(key, cheapest, cheapest.size(), QueryCache.Dependency.onMatching(l -> l.getPrice() <= ceiling), stamp);
+            return new ArrayList<>(cheapest);
+        } finally {
+            lock.readLock().unlock();
+            cheapestTimer.stop(start);
+        }
+    }
+
+    public List<Laptop> findBySpecs(SpecQueryEngine.SpecQuery query) {
+        checkOnHeap();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            QueryCache.Dependency dependency = QueryCache.Dependency.onMatching(query::matchesSpecs);
+            return cachedList("specs|" + query.key(), query.inStockOnly ? dependency.andStock() : dependency,
+                    () -> specEngine.query(query));
+        } finally {
+            lock.readLock().unlock();
+            specsTimer.stop(start);
+        }
+    }
+
+    // Laptops no other laptop beats on price, RAM, storage and processor score at once
+    public Skyline.Result bestValueLaptops() {
+        checkOnHeap();
+        long start = System.nanoTime();
+        try {
+            Skyline.Result hit = queryCache.get("bestValue");
+            if (hit != null) return hit;
+            long stamp = queryCache.stamp();
+            Skyline.Result frontier = Skyline.compute(snapshot().laptops());
+            int weight = frontier.overall.size();
+            for (List<Laptop> brand : frontier.byBrand.values()) weight += brand.size();
+            queryCache.put("bestValue", frontier, weight, QueryCache.Dependency.onAny(), stamp);
+            return frontier;
+        } finally {
+            bestValueTimer.stop(start);
+        }
+    }
+
+    // The k laptops in stock most similar to the model (empty if it does not exist)
+    public List<Laptop> similarLaptops(String model, int k) {
+        checkOnHeap();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Laptop laptop = index.findByModel(model);
+            if (laptop == null) return new ArrayList<>();
+            return cachedList("similar|" + LaptopIndex.key(model) + "|" + k, QueryCache.Dependency.onAny().andStock(),
+                    () -> similarity.similarTo(laptop, k));
+        } finally {
+            lock.readLock().unlock();
+            similarTimer.stop(start);
+        }
+    }
+
+    // The k laptops in stock and within budget closest to the given RAM, storage and processor
+    public List<Laptop> closestUnderBudget(int ram, int storage, String processor, double maxPrice, int k) {
+        checkOnHeap();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int score = ProcessorCatalog.score(processor);
+            return cachedList("budget|" + ram + "|" + storage + "|" + score + "|" + maxPrice + "|" + k,
+                    QueryCache.Dependency.onMatching(l -> l.getPrice() <= maxPrice).andStock(),
+                    () -> similarity.closestUnderBudget(ram, storage, score, maxPrice, k));
+        } finally {
+            lock.readLock().unlock();
+            budgetTimer.stop(start);
+        }
+    }
+
+    // Typo-tolerant search over model, brand and processor, best matches first
+    public List<Laptop> fuzzySearch(String query, int limit) {
+        checkOnHeap();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return cachedList("fuzzy|" + TrigramIndex.normalize(query) + "|" + limit, QueryCache.Dependency.onAny(),
+                    () -> textIndex.search(query, limit));
+        } finally {
+            lock.readLock().unlock();
+            fuzzyTimer.stop(start);
+        }
+    }
+
+    // Laptops where the text starts a word of the model, brand or processor
+    public List<Laptop> prefixSearch(String prefix, int limit) {
+        checkOnHeap();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return cachedList("prefix|" + TrigramIndex.normalize(prefix) + "|" + limit, QueryCache.Dependency.onAny(),
+                    () -> textIndex.prefixSearch(prefix, limit));
+        } finally {
+            lock.readLock().unlock();
+            prefixTimer.stop(start);
+        }
+    }
+
+    // A cached result if there is one, otherwise runs the query and caches it; callers get their
+    // own copy of the list. Called with the inventory lock held, so nothing changes meanwhile.
+    private List<Laptop> cachedList(String key, QueryCache.Dependency dependency, Supplier<List<Laptop>> query) {
+        List<Laptop> hit = queryCache.get(key);
+        if (hit == null) {
+            long stamp = queryCache.stamp();
+            hit = query.get();
+            queryCache.put(key, hit, hit.size(), dependency, stamp);
+        }
+        return new ArrayList<>(hit);
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public OperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Writes the metrics collected so far to laptops-metrics.json (replacing the previous dump)
+    public Path writeMetrics() throws IOException {
+        Path file = dataDir.resolve(METRICS_NAME);
+        metrics.writeJson(file);
+        return file;
+    }
+
+    // Writes a snapshot (laptops.csv + laptops.bin) and drops the journal segments it covers
+    public void save() throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (store != null) {
+                saveStore();
+                return;
+            }
+            Callable<Void> task;
+            lock.writeLock().lock();
+            try {
+                task = snapshotTask(journalOpen ? journal.rotate() : List.of());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            snapshotWriter.submit(task).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof IOException) ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("save interrupted", e);
+        } finally {
+            saveTimer.stop(start);
+        }
+    }
+
+    // Flushes the journal and stops the background threads; used by tools that create
+    // more than one instance (the interactive menu simply exits)
+    public void close() {
+        stopReplication();
+        try {
+            if (journalOpen) journal.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close journal: " + e.getMessage());
+        }
+        snapshotWriter.shutdown();
+        saveMetrics();
+    }
+
+    // Applies a large set of changes without journaling each one, then writes one snapshot.
+    // Only the changes made by this thread (inside changes) skip the journal; other threads
+    // are journaled as usual meanwhile. If the process dies part-way, the inventory reverts
+    // to the previous snapshot + journal.
+    public void applyInBulk(Runnable changes) throws IOException {
+        checkOnHeap();
+        long start = System.nanoTime();
+        int[] depth = bulkDepth.get();
+        depth[0]++;
+        try {
+            changes.run();
+        } finally {
+            depth[0]--;
+        }
+        try {
+            save();
+        } finally {
+            bulkTimer.stop(start);
+        }
+    }
+
+    private boolean inBulk() {
+        return bulkDepth.get()[0] > 0;
+    }
+
+    // --- Replication ---
+    // Streams every change from now on to replicas connecting to the local port
+    public ReplicationPrimary startPrimary(int port) throws IOException {
+        checkOnHeap();
+        if (primary != null || replica != null) throw new IllegalStateException("replication already started");
+        lock.writeLock().lock();
+        try {
+            primary = new ReplicationPrimary(port, this::baseline);
+            listeners.add(primary);
+            return primary;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Whole inventory plus the LSN of the last change in it, for a replica that has to start over
+    private ReplicationPrimary.Baseline baseline() {
+        lock.writeLock().lock();
+        try {
+            VersionedInventory.Snapshot snapshot = versions.snapshot();
+            return new ReplicationPrimary.Baseline(primary.lastLsn(),
+                    snapshot.laptops().toArray(new Laptop[0]), snapshot.quantities());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Turns this terminal into a read-only copy of the primary at host:port, continuing from
+    // the position saved with the local data
+    public ReplicationReplica startReplica(String host, int port) {
+        checkOnHeap();
+        if (primary != null || replica != null) throw new IllegalStateException("replication already started");
+        long[] position = readReplicaPosition();
+        replica = new ReplicationReplica(host, port, new ReplicationReplica.Target() {
+            @Override
+            public void applyRecord(String record) {
+                if (!InventoryJournal.apply(record, replayTarget)) {
+                    System.out.println("Skipping bad replicated record: " + record);
+                }
+            }
+
+            @Override
+            public void replaceAll(List<Laptop> laptops) {
+                replaceInventory(laptops);
+            }
+        }, position[0], position[1]);
+        return replica;
+    }
+
+    // Swaps in the primary's snapshot and saves it
+    private void replaceInventory(List<Laptop> laptops) {
+        try {
+            applyInBulk(() -> {
+                lock.writeLock().lock();
+                try {
+                    clearInventory();
+                    if (partitions != null) partitions.markAllDirty();
+                    insertAll(laptops);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("Failed to save the primary's snapshot: " + e.getMessage());
         }
     }
 
+    public boolean isReadOnly() {
+        return replica != null;
+    }
+
+    private void checkWritable() {
+        if (isReadOnly()) throw new IllegalStateException("read-only replica");
+    }
+
+    private void stopReplication() {
+        try {
+            if (primary != null) primary.close();
+            if (replica != null) replica.close();
+        } catch (IOException e) {
+            System.out.println("Failed to stop replication: " + e.getMessage());
+        }
+    }
+
+    private long[] readReplicaPosition() {
+        Path file = dataDir.resolve(REPLICA_STATE_NAME);
+        if (!Files.exists(file)) return new long[] {0, 0};
+        Properties p = new Properties();
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            p.load(r);
+            return new long[] {Long.parseLong(p.getProperty("epoch", "0")), Long.parseLong(p.getProperty("lsn", "0"))};
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Ignoring bad " + REPLICA_STATE_NAME + ", will fetch a full copy: " + e.getMessage());
+            return new long[] {0, 0};
+        }
+    }
+
+    // Written after the snapshot it describes is on disk
+    private void writeReplicaPosition(long[] position) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("epoch", Long.toString(position[0]));
+        p.setProperty("lsn", Long.toString(position[1]));
+        Path tmp = dataDir.resolve(REPLICA_STATE_NAME + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            p.store(w, "replication position of the saved copy");
+        }
+        Files.move(tmp, dataDir.resolve(REPLICA_STATE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String replicationStatus() {
+        if (primary != null) return primary.toString();
+        if (replica != null) return replica.toString();
+        return "standalone (no replication)";
+    }
+
+    public void replicationReport() {
+        System.out.println("Replication: " + replicationStatus());
+    }
+
     // --- Features ---
     public void addLaptop() {
+        if (isReadOnly()) {
+            System.out.println(READ_ONLY_MESSAGE);
+            return;
+        }
         try {
             String brand = readNonEmptyLine("Enter laptop brand: ");
             String model = readNonEmptyLine("Enter laptop model: ");
+            if (findByModel(model) != null) {
+                System.out.println("A laptop with model " + model + " already exists.");
+                return;
+            }
             String processor = readNonEmptyLine("Enter processor: ");
             int ram = readIntNonNegative("Enter RAM (in GB): ");
             int storage = readIntNonNegative("Enter storage (in GB): ");
             double price = readDoubleNonNegative("Enter price: ");
             int qty = readIntNonNegative("Enter quantity in stock: ");
 
-            laptops.add(new Laptop(brand, model, processor, ram, storage, price, qty));
+            addLaptop(new Laptop(brand, model, processor, ram, storage, price, qty));
             System.out.println("Laptop added successfully!");
         } catch (Exception e) {
             System.out.println("Failed to add laptop: " + e.getMessage());
@@ -131,22 +1453,88 @@ public class LaptopManagementSystem {
     }
 
     public void viewAllLaptops() {
-        if (laptops.isEmpty()) {
+        Iterable<Laptop> all = allLaptops();
+        if (all == null) {
             System.out.println("No laptops available.");
             return;
         }
-        for (int i = 0; i < laptops.size(); i++) {
-            System.out.println("\nLaptop " + (i + 1) + ":");
-            laptops.get(i).displayProductInfo();
+        printLaptops(all);
+    }
+
+    // Every laptop for printing, or null if there are none
+    private Iterable<Laptop> allLaptops() {
+        if (store != null) {
+            int n = size();
+            return (n == 0) ? null : storeRows(null, n);
+        }
+        VersionedInventory.Snapshot snapshot = snapshot();
+        return (snapshot.size() == 0) ? null : snapshot.views();
+    }
+
+    // Prints a page at a time; Enter shows the next page, "a" the rest, "q" stops
+    private void printLaptops(Iterable<Laptop> items) {
+        Iterator<Laptop> it = items.iterator();
+        int shown = 0;
+        int pageSize = PAGE_SIZE;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                shown += table.printPage(it, shown + 1, pageSize);
+            } finally {
+                pageTimer.stop(start);
+            }
+            if (!it.hasNext()) return;
+            if (pageSize == PAGE_SIZE) {
+                System.out.print("-- " + shown + " shown. Enter = next page, a = all, q = stop: ");
+                if (!scanner.hasNextLine()) return;
+                String answer = scanner.nextLine().trim();
+                if (answer.equalsIgnoreCase("q")) return;
+                if (answer.equalsIgnoreCase("a")) pageSize = Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    // The exact model if it exists; otherwise offers the closest matches and returns the one
+    // picked, or null (after saying so) if there is none or the user cancels
+    private String resolveModel(String typed) {
+        if (findByModel(typed) != null) return typed;
+        if (store != null) {
+            System.out.println("Laptop not found.");
+            return null;
+        }
+        List<Laptop> suggestions = fuzzySearch(typed, SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            System.out.println("Laptop not found.");
+            return null;
+        }
+        System.out.println("Laptop not found. Did you mean:");
+        for (int i = 0; i < suggestions.size(); i++) {
+            Laptop l = suggestions.get(i);
+            System.out.printf("  %d. %s %s (%s)%n", i + 1, l.getBrand(), l.getModel(), l.getProcessor());
+        }
+        System.out.print("Enter a number to choose, or press Enter to cancel: ");
+        if (!scanner.hasNextLine()) return null;
+        try {
+            int pick = Integer.parseInt(scanner.nextLine().trim());
+            if (pick >= 1 && pick <= suggestions.size()) return suggestions.get(pick - 1).getModel();
+        } catch (NumberFormatException e) {
+            // cancelled
         }
+        System.out.println("Cancelled.");
+        return null;
     }
 
     public void removeLaptop() {
+        if (isReadOnly()) {
+            System.out.println(READ_ONLY_MESSAGE);
+            return;
+        }
         System.out.print("Enter model to remove: ");
-        String modelToRemove = scanner.nextLine();
+        String modelToRemove = resolveModel(scanner.nextLine());
+        if (modelToRemove == null) return;
         boolean removed = false;
         try {
-            removed = laptops.removeIf(l -> l.getModel().equalsIgnoreCase(modelToRemove));
+            removed = removeLaptop(modelToRemove);
         } catch (Exception e) {
             System.out.println("Error while removing: " + e.getMessage());
         }
@@ -154,55 +1542,187 @@ public class LaptopManagementSystem {
     }
 
     public void searchLaptop() {
-        System.out.print("Enter brand to search (or leave blank for all): ");
+        System.out.print("Enter brand or search text (or leave blank for all): ");
         String brand = scanner.nextLine().trim();
         try {
-            List<Laptop> results = laptops.stream()
-                    .filter(l -> brand.isEmpty() || l.getBrand().equalsIgnoreCase(brand))
-                    .collect(Collectors.toList());
-            if (results.isEmpty()) System.out.println("No laptops found.");
-            else results.forEach(Laptop::displayProductInfo);
+            if (brand.isEmpty()) {
+                Iterable<Laptop> all = allLaptops();
+                if (all == null) System.out.println("No laptops found.");
+                else printLaptops(all);
+                return;
+            }
+            Collection<Laptop> results = findByBrand(brand);
+            if (!results.isEmpty()) {
+                printLaptops(results);
+                return;
+            }
+            if (store != null) {
+                System.out.println("No laptops found.");
+                return;
+            }
+            // not a brand: fall back to a typo-tolerant search over model, brand and processor
+            List<Laptop> matches = fuzzySearch(brand, PAGE_SIZE);
+            if (matches.isEmpty()) {
+                System.out.println("No laptops found.");
+            } else {
+                System.out.println("No brand named " + brand + ". Closest matches:");
+                printLaptops(matches);
+            }
         } catch (Exception e) {
             System.out.println("Search error: " + e.getMessage());
         }
     }
 
     public void updateAvailabilityStatus() {
+        if (isReadOnly()) {
+            System.out.println(READ_ONLY_MESSAGE);
+            return;
+        }
         System.out.print("Enter model to update: ");
-        String model = scanner.nextLine();
-        for (Laptop laptop : laptops) {
-            if (laptop.getModel().equalsIgnoreCase(model)) {
-                int newQty = readIntNonNegative("Enter new quantity: ");
-                laptop.setQuantity(newQty);
-                System.out.println("Quantity updated successfully!");
-                return;
-            }
+        String model = resolveModel(scanner.nextLine());
+        if (model == null) return;
+        int newQty = readIntNonNegative("Enter new quantity: ");
+        try {
+            setQuantity(model, newQty);
+            System.out.println("Quantity updated successfully!");
+        } catch (Exception e) {
+            System.out.println("Failed to update quantity: " + e.getMessage());
         }
-        System.out.println("Laptop not found.");
     }
 
     public void sortLaptopsByPrice() {
-        if (laptops.isEmpty()) {
+        if (offHeapUnavailable()) return;
+        if (size() == 0) {
             System.out.println("No laptops to sort.");
             return;
         }
         try {
-            laptops.sort(Comparator.comparingDouble(Laptop::getPrice));
+            // Walks the price index; the stored (insertion) order is left untouched
             System.out.println("Laptops sorted by price:");
-            viewAllLaptops();
+            printLaptops(laptopsByPrice());
         } catch (Exception e) {
             System.out.println("Sort failed: " + e.getMessage());
         }
     }
 
+    public void searchByPriceRange() {
+        if (offHeapUnavailable()) return;
+        double min = readDoubleNonNegative("Enter minimum price: ");
+        double max = readDoubleNonNegative("Enter maximum price: ");
+        int limit = readIntNonNegative("Show at most how many (0 for all): ");
+        try {
+            Iterable<Laptop> range = laptopsInPriceRange(min, max);
+            List<Laptop> results = new ArrayList<>();
+            for (Laptop l : range) {
+                if (limit > 0 && results.size() >= limit) break;
+                results.add(l);
+            }
+            if (results.isEmpty()) System.out.println("No laptops found in that price range.");
+            else printLaptops(results);
+        } catch (Exception e) {
+            System.out.println("Search error: " + e.getMessage());
+        }
+    }
+
+    public void searchBySpecs() {
+        if (offHeapUnavailable()) return;
+        System.out.println("Leave a field blank to ignore it.");
+        SpecQueryEngine.SpecQuery query = new SpecQueryEngine.SpecQuery();
+        int minRam = readOptionalIntNonNegative("Minimum RAM (GB): ");
+        if (minRam >= 0) query.minRam(minRam);
+        int minStorage = readOptionalIntNonNegative("Minimum storage (GB): ");
+        if (minStorage >= 0) query.minStorage(minStorage);
+        double minPrice = readOptionalDoubleNonNegative("Minimum price: ");
+        if (minPrice >= 0) query.minPrice(minPrice);
+        double maxPrice = readOptionalDoubleNonNegative("Maximum price: ");
+        if (maxPrice >= 0) query.maxPrice(maxPrice);
+        System.out.print("Processor families, comma separated (e.g. i7, Ryzen 7): ");
+        for (String name : scanner.nextLine().split(",")) {
+            if (name.trim().isEmpty()) continue;
+            SpecQueryEngine.Family f = SpecQueryEngine.Family.parse(name);
+            if (f == null) System.out.println("Ignoring unknown processor family: " + name.trim());
+            else query.family(f);
+        }
+        System.out.print("Only laptops in stock? (y/n): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("y")) query.inStockOnly();
+        try {
+            List<Laptop> results = findBySpecs(query);
+            if (results.isEmpty()) System.out.println("No laptops match those specs.");
+            else printLaptops(results);
+        } catch (Exception e) {
+            System.out.println("Search error: " + e.getMessage());
+        }
+    }
+
+    public void recommendLaptops() {
+        if (offHeapUnavailable()) return;
+        if (size() == 0) {
+            System.out.println("No laptops available.");
+            return;
+        }
+        System.out.print("Enter a model to find similar laptops (or leave blank to describe a spec): ");
+        String model = scanner.nextLine().trim();
+        try {
+            List<Laptop> results;
+            if (!model.isEmpty()) {
+                if (findByModel(model) == null) {
+                    System.out.println("Laptop not found.");
+                    return;
+                }
+                results = similarLaptops(model, RECOMMENDATIONS);
+            } else {
+                int ram = readIntNonNegative("Desired RAM (GB): ");
+                int storage = readIntNonNegative("Desired storage (GB): ");
+                String processor = readNonEmptyLine("Desired processor (e.g. i7, Ryzen 7): ");
+                double budget = readDoubleNonNegative("Maximum budget: ");
+                results = closestUnderBudget(ram, storage, processor, budget, RECOMMENDATIONS);
+            }
+            if (results.isEmpty()) System.out.println("No matching laptops in stock.");
+            else printLaptops(results);
+        } catch (Exception e) {
+            System.out.println("Recommendation failed: " + e.getMessage());
+        }
+    }
+
+    public void bestValueReport() {
+        if (offHeapUnavailable()) return;
+        if (size() == 0) {
+            System.out.println("No data available.");
+            return;
+        }
+        try {
+            Skyline.Result frontier = bestValueLaptops();
+            System.out.println("\n--- Best-Value Report (Pareto frontier) ---");
+            System.out.println("Overall: " + frontier.overall.size() + " of " + getTotals().getCount() + " laptop(s)");
+            printFrontier(frontier.overall);
+            for (Map.Entry<String, List<Laptop>> e : frontier.byBrand.entrySet()) {
+                System.out.println("\n" + e.getKey() + ": " + e.getValue().size() + " of "
+                        + getBrandTotals(e.getKey()).getCount() + " laptop(s)");
+                printFrontier(e.getValue());
+            }
+        } catch (Exception e) {
+            System.out.println("Failed to generate report: " + e.getMessage());
+        }
+    }
+
+    private void printFrontier(List<Laptop> frontier) {
+        List<Laptop> rows = new ArrayList<>(frontier);
+        rows.sort(Comparator.comparingDouble(Laptop::getPrice));
+        for (Laptop l : rows) {
+            System.out.printf("  %-10s %-20s Rs. %-12.2f %4dGB RAM %6dGB %s%n", l.getBrand(), l.getModel(),
+                    l.getPrice(), l.getRam(), l.getStorage(), l.getProcessor());
+        }
+    }
+
     public void calculateAveragePrice() {
-        if (laptops.isEmpty()) {
+        if (size() == 0) {
             System.out.println("No laptops available.");
             return;
         }
         try {
-            double avg = laptops.stream().mapToDouble(Laptop::getPrice).average().orElse(0);
+            double avg = getTotals().getAveragePrice();
             System.out.printf("Average laptop price: Rs. %.2f%n", avg);
+            selfCheck();
         } catch (Exception e) {
             System.out.println("Failed to compute average: " + e.getMessage());
         }
@@ -212,31 +1732,74 @@ public class LaptopManagementSystem {
         System.out.print("Enter brand name: ");
         String brand = scanner.nextLine().trim();
         try {
-            long count = laptops.stream().filter(l -> l.getBrand().equalsIgnoreCase(brand)).count();
+            InventoryStats.Totals totals = getBrandTotals(brand);
+            int count = totals.getCount();
             System.out.println("Number of laptops of brand " + brand + ": " + count);
+            if (count > 0) {
+                System.out.printf("Average price: Rs. %.2f, stock value: Rs. %.2f%n",
+                        totals.getAveragePrice(), totals.getStockValue());
+            }
         } catch (Exception e) {
             System.out.println("Count failed: " + e.getMessage());
         }
     }
 
     public void generateReport() {
-        if (laptops.isEmpty()) {
+        if (size() == 0) {
             System.out.println("No data available.");
             return;
         }
+        long start = System.nanoTime();
         try {
             System.out.println("\n--- Summary Report ---");
-            System.out.println("Total Laptops: " + laptops.size());
-            System.out.println("Total Stock Value: Rs. " +
-                    laptops.stream().mapToDouble(l -> l.getPrice() * l.getQuantity()).sum());
+            InventoryStats.Totals totals = getTotals();
+            System.out.println("Total Laptops: " + totals.getCount());
+            System.out.println("Total Stock Value: Rs. " + totals.getStockValue());
+            selfCheck();
         } catch (Exception e) {
             System.out.println("Failed to generate report: " + e.getMessage());
+        } finally {
+            reportTimer.stop(start);
+        }
+    }
+
+    public void heapFootprintReport() {
+        if (size() == 0) {
+            System.out.println("No data available.");
+            return;
+        }
+        if (store != null) {
+            System.out.printf("%d laptop(s) off-heap: %.1f MB direct memory%n",
+                    store.size(), store.offHeapBytes() / 1048576.0);
+            return;
+        }
+        long start = System.nanoTime();
+        HeapFootprint.Report r = HeapFootprint.measure(snapshot().laptops());
+        footprintTimer.stop(start);
+        System.out.println("\n--- Heap Footprint (estimated) ---");
+        System.out.println("Laptop records: " + r.records);
+        System.out.printf("Without shared strings: %.1f bytes/record (%.1f MB)%n",
+                r.perRecordBefore(), r.bytesBefore / 1048576.0);
+        System.out.printf("With shared strings:    %.1f bytes/record (%.1f MB)%n",
+                r.perRecordAfter(), r.bytesAfter / 1048576.0);
+        System.out.println("Distinct brands: " + StringDictionary.BRANDS.size()
+                + ", distinct processors: " + StringDictionary.PROCESSORS.size());
+    }
+
+    public void metricsReport() {
+        System.out.println("\n--- Performance Metrics ---");
+        metrics.print();
+        System.out.println("Query cache: " + queryCache);
+        try {
+            System.out.println("Metrics written to " + writeMetrics() + ".");
+        } catch (IOException e) {
+            System.out.println("Failed to write metrics: " + e.getMessage());
         }
     }
 
     // Compare two laptops by specifications (brand, processor, RAM, storage)
     public void compareLaptops() {
-        if (laptops.size() < 2) {
+        if (size() < 2) {
             System.out.println("At least two laptops are required to compare.");
             return;
         }
@@ -245,12 +1808,15 @@ public class LaptopManagementSystem {
         System.out.print("Enter second laptop model: ");
         String model2 = scanner.nextLine().trim();
 
-        Laptop laptop1 = null, laptop2 = null;
-        for (Laptop l : laptops) {
-            if (l.getModel().equalsIgnoreCase(model1)) laptop1 = l;
-            if (l.getModel().equalsIgnoreCase(model2)) laptop2 = l;
+        long start = System.nanoTime();
+        try {
+            compare(findByModel(model1), findByModel(model2));
+        } finally {
+            compareTimer.stop(start);
         }
+    }
 
+    private void compare(Laptop laptop1, Laptop laptop2) {
         if (laptop1 == null || laptop2 == null) {
             System.out.println("One or both models not found.");
             return;
@@ -290,44 +1856,13 @@ public class LaptopManagementSystem {
     }
 
     // --- Helper: Compare processor ranking heuristically (ADDED) ---
-    private String compareProcessorPerformance(String p1, String p2) {
-        String p1Lower = p1 == null ? "" : p1.toLowerCase();
-        String p2Lower = p2 == null ? "" : p2.toLowerCase();
-
-        int s1 = processorScore(p1Lower);
-        int s2 = processorScore(p2Lower);
+    // Scores come from ProcessorCatalog, which parses each distinct processor string once
+    String compareProcessorPerformance(String p1, String p2) {
+        int s1 = ProcessorCatalog.score(p1);
+        int s2 = ProcessorCatalog.score(p2);
 
         if (s1 > s2) return p1 + " is better";
         else if (s2 > s1) return p2 + " is better";
         else return "Both processors are comparable";
     }
-
-    // --- Helper: score common CPU names (Intel i3/i5/i7/i9, AMD Ryzen 3/5/7/9, simple gen hints) (ADDED) ---
-    private int processorScore(String proc) {
-        int score = 0;
-
-        // Intel Core
-        if (proc.contains("i9")) score += 90;
-        else if (proc.contains("i7")) score += 70;
-        else if (proc.contains("i5")) score += 50;
-        else if (proc.contains("i3")) score += 30;
-
-        // AMD Ryzen
-        if (proc.contains("ryzen 9")) score += 90;
-        else if (proc.contains("ryzen 7")) score += 70;
-        else if (proc.contains("ryzen 5")) score += 50;
-        else if (proc.contains("ryzen 3")) score += 30;
-
-        // Simple generation cues like "13th", "12th"
-        for (int gen = 3; gen <= 20; gen++) {
-            if (proc.contains(gen + "th")) { score += gen; break; }
-        }
-
-        // Basic uplift for known mobile suffixes (very rough heuristic)
-        if (proc.contains("hx") || proc.contains("hk")) score += 6;
-        if (proc.contains("h")) score += 4;
-        if (proc.contains("u")) score += 1;
-
-        return score;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.PrintStream;
+import java.util.Iterator;
+
+// Renders laptops as a fixed-width table. Rows are formatted by hand into one StringBuilder
+// that is reused for the life of the table and written out in blocks of about 64 KB, instead
+// of seven println calls (and a flush) per laptop. Pages pull rows from an iterator, so only
+// the rows actually shown are ever formatted. Long brands and processors are cut short with
+// '~'; a long model is wrapped onto extra lines instead, since it is what users type back in.
+public class LaptopTable {
+    private static final int FLUSH_AT = 1 << 16;
+    private static final int[] WIDTHS = {6, 10, 22, 26, 6, 8, 13, 6};
+    private static final boolean[] RIGHT = {true, false, false, false, true, true, true, true};
+    private static final String SPACES = " ".repeat(32);
+    private static final String[] HEADERS = {"#", "Brand", "Model", "Processor", "RAM", "Storage", "Price", "Qty"};
+    private static final int MODEL = 2;
+    private static final int MODEL_OFFSET = WIDTHS[0] + WIDTHS[1] + 2;
+
+    private final PrintStream out;
+    private final StringBuilder buf = new StringBuilder(FLUSH_AT + 256);
+
+    public LaptopTable(PrintStream out) {
+        this.out = out;
+    }
+
+    // Formats up to pageSize rows from the iterator (numbered from firstNumber) under a header
+    // and writes them out; returns how many rows were printed
+    public int printPage(Iterator<? extends Laptop> rows, int firstNumber, int pageSize) {
+        header();
+        int n = 0;
+        while (n < pageSize && rows.hasNext()) {
+            row(firstNumber + n, rows.next());
+            n++;
+        }
+        flush();
+        return n;
+    }
+
+    public void header() {
+        for (int c = 0; c < HEADERS.length; c++) cell(c, HEADERS[c]);
+        buf.setLength(buf.length() - 1);
+        buf.append('\n');
+        int width = 0;
+        for (int w : WIDTHS) width += w + 1;
+        for (int i = 1; i < width; i++) buf.append('-');
+        buf.append('\n');
+    }
+
+    public void row(int number, Laptop l) {
+        int start = buf.length();
+        buf.append(number);
+        align(0, start);
+        cell(1, l.getBrand());
+        String model = (l.getModel() == null) ? "" : l.getModel();
+        int modelWidth = WIDTHS[MODEL];
+        start = buf.length();
+        buf.append(model, 0, Math.min(model.length(), modelWidth));
+        align(MODEL, start);
+        cell(3, l.getProcessor());
+        start = buf.length();
+        buf.append(l.getRam()).append("GB");
+        align(4, start);
+        start = buf.length();
+        buf.append(l.getStorage()).append("GB");
+        align(5, start);
+        start = buf.length();
+        long cents = InventoryStats.toCents(l.getPrice());
+        buf.append(cents / 100).append('.');
+        if (cents % 100 < 10) buf.append('0');
+        buf.append(cents % 100);
+        align(6, start);
+        start = buf.length();
+        buf.append(l.getQuantity());
+        align(7, start);
+        buf.setLength(buf.length() - 1);   // no separator after the last column
+        buf.append('\n');
+        for (int from = modelWidth; from < model.length(); from += modelWidth) {
+            buf.append(SPACES, 0, MODEL_OFFSET).append(model, from, Math.min(model.length(), from + modelWidth)).append('\n');
+        }
+        if (buf.length() >= FLUSH_AT) flush();
+    }
+
+    public void flush() {
+        if (buf.length() == 0) return;
+        out.append(buf);
+        out.flush();
+        buf.setLength(0);
+    }
+
+    private void cell(int column, String text) {
+        int start = buf.length();
+        String s = (text == null) ? "" : text;
+        int width = WIDTHS[column];
+        if (s.length() > width) {
+            buf.append(s, 0, width - 1).append('~');
+        } else {
+            buf.append(s);
+        }
+        align(column, start);
+    }
+
+    // Pads the text appended since start to the column width (left or right aligned) and
+    // adds the column separator
+    private void align(int column, int start) {
+        int pad = WIDTHS[column] - (buf.length() - start);
+        if (pad > 0) {
+            if (RIGHT[column]) buf.insert(start, SPACES, 0, pad);
+            else buf.append(SPACES, 0, pad);
+        }
+        buf.append(' ');
+    }
+}
@@ -1,9 +1,58 @@
 package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
-        LaptopManagementSystem system = new LaptopManagementSystem();
+        // Headless mode: java Main --batch commands.txt
+        if (args.length == 2 && args[0].equals("--batch")) {
+            int failed = BatchRunner.run(args[1]);
+            System.exit(failed == 0 ? 0 : 1);
+        }
+        // Query service for other local tools: java Main --http 8080 (JSON endpoints on
+        // 127.0.0.1:8080, see InventoryHttpService; runs until the process is stopped)
+        if (args.length == 2 && args[0].equals("--http")) {
+            serveHttp(args[1]);
+            return;
+        }
+
+        // Replication: java Main --primary 7070 (ships changes to replicas on that port), or
+        // java Main --replica 7070 [dataDir] (read-only copy of the primary on localhost:7070;
+        // give it its own dataDir when both run from the same folder)
+        // Large-catalog mode: java Main --offheap (the inventory is kept in direct memory;
+        // menu items that need the in-memory indexes say they are unavailable)
+        LaptopManagementSystem system;
+        if (args.length == 1 && args[0].equals("--offheap")) {
+            try {
+                system = LaptopManagementSystem.offHeap(Paths.get(""));
+            } catch (IOException e) {
+                System.out.println("Error loading data: " + e.getMessage());
+                return;
+            }
+        } else if ((args.length == 2 || args.length == 3) && args[0].equals("--replica")) {
+            system = new LaptopManagementSystem(Paths.get(args.length == 3 ? args[2] : ""));
+            try {
+                system.startReplica("localhost", Integer.parseInt(args[1]));
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid port: " + args[1]);
+                return;
+            }
+            System.out.println("Read-only replica of localhost:" + args[1] + ".");
+        } else if (args.length == 2 && args[0].equals("--primary")) {
+            system = new LaptopManagementSystem();
+            try {
+                System.out.println("Primary: replicas can connect on port " + system.startPrimary(Integer.parseInt(args[1])).port() + ".");
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid port: " + args[1]);
+                return;
+            } catch (IOException e) {
+                System.out.println("Cannot start replication: " + e.getMessage());
+                return;
+            }
+        } else {
+            system = new LaptopManagementSystem();
+        }
         Scanner scanner = new Scanner(System.in);
         int choice;
 
@@ -19,13 +68,21 @@ public class Main {
             System.out.println("8. Count Laptops by Brand");
             System.out.println("9. Generate Summary Report");
             System.out.println("10. Compare Two Laptops");
-            System.out.println("11. Exit");
+            System.out.println("11. Import Laptops from CSV");
+            System.out.println("12. Search Laptops by Price Range");
+            System.out.println("13. Search Laptops by Specs");
+            System.out.println("14. Heap Footprint Report");
+            System.out.println("15. Recommend Similar Laptops");
+            System.out.println("16. Best-Value Report (Pareto Frontier)");
+            System.out.println("17. Performance Metrics");
+            System.out.println("18. Replication Status");
+            System.out.println("19. Exit");
             System.out.print("Enter your choice: ");
 
             try {
                 choice = Integer.parseInt(scanner.nextLine().trim());
             } catch (Exception e) {
-                System.out.println("Invalid input. Please enter a number 1-11.");
+                System.out.println("Invalid input. Please enter a number 1-19.");
                 choice = -1;
             }
 
@@ -40,14 +97,46 @@ public class Main {
                 case 8 -> system.countLaptopsByBrand();
                 case 9 -> system.generateReport();
                 case 10 -> system.compareLaptops();
-                case 11 -> {
+                case 11 -> system.importFromCsv();
+                case 12 -> system.searchByPriceRange();
+                case 13 -> system.searchBySpecs();
+                case 14 -> system.heapFootprintReport();
+                case 15 -> system.recommendLaptops();
+                case 16 -> system.bestValueReport();
+                case 17 -> system.metricsReport();
+                case 18 -> system.replicationReport();
+                case 19 -> {
                     system.saveToFile();
+                    system.saveMetrics();
                     System.out.println("Thank you for using Laptop Management System!");
                 }
                 default -> System.out.println("Invalid choice. Please try again.");
             }
-        } while (choice != 11);
+        } while (choice != 19);
 
         scanner.close();
     }
+
+    // The server's threads keep the process alive; on Ctrl+C or kill the hook stops serving
+    // and saves the inventory like the menu's Exit does
+    private static void serveHttp(String port) {
+        LaptopManagementSystem system = new LaptopManagementSystem();
+        InventoryHttpService service;
+        try {
+            service = new InventoryHttpService(system, Integer.parseInt(port));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid port: " + port);
+            return;
+        } catch (IOException e) {
+            System.out.println("Cannot start HTTP service: " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            service.close();
+            system.saveToFile();
+            system.close();
+            System.out.println("Stopped " + service + ".");
+        }, "http-shutdown"));
+        System.out.println("Serving http://127.0.0.1:" + service.port() + "/ (Ctrl+C to stop).");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,406 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Inventory kept entirely in direct (off-heap) memory, for catalogs too large to hold as
+// Laptop objects without long GC pauses. The heap only holds the small brand/processor
+// dictionaries and a few buffer references, whatever the row count.
+//
+//   records : fixed 48-byte slots in 64K-row (3 MB) direct slabs
+//       brand code, processor code, ram, storage, quantity, model hash (ints),
+//       price in paise (long), model arena offset (long), model byte length (int), unused
+//   arena   : model names as UTF-8 in 1 MB direct slabs, append-only; space left by removed
+//             rows is reclaimed by compacting once it outweighs the live bytes
+//   index   : open-addressing hash table (row + 1 per int slot, linear probing) in direct
+//             memory, keyed by LaptopIndex.key(model)
+//
+// Rows are dense: a removal moves the last row into the gap. Not thread-safe.
+public class OffHeapInventory implements InventoryStore {
+    private static final int RECORD_BYTES = 48;
+    private static final int SLAB_SHIFT = 16;                 // 64K records per slab
+    private static final int SLAB_ROWS = 1 << SLAB_SHIFT;
+    private static final int ARENA_SHIFT = 20;                // 1 MB per arena slab
+    private static final int ARENA_SLAB_BYTES = 1 << ARENA_SHIFT;
+
+    private static final int BRAND = 0, PROCESSOR = 4, RAM = 8, STORAGE = 12, QUANTITY = 16,
+            HASH = 20, PRICE = 24, MODEL_AT = 32, MODEL_LEN = 40;
+
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private List<ByteBuffer> arena = new ArrayList<>();
+    private long arenaEnd;
+    private long arenaLive;
+    private ByteBuffer table;
+    private int tableMask;
+    private int size;
+
+    public OffHeapInventory() {
+        this(1024);
+    }
+
+    public OffHeapInventory(int expectedRows) {
+        int slots = Integer.highestOneBit(Math.max(expectedRows, 512) * 2 - 1) << 1;
+        table = newTable(slots);
+        tableMask = slots - 1;
+    }
+
+    private static ByteBuffer newTable(int slots) {
+        return ByteBuffer.allocateDirect(slots * 4).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // --- Record slots ---
+    private ByteBuffer slab(int row) {
+        return slabs.get(row >>> SLAB_SHIFT);
+    }
+
+    private static int at(int row, int field) {
+        return (row & (SLAB_ROWS - 1)) * RECORD_BYTES + field;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("row " + row);
+    }
+
+    private int intField(int row, int field) {
+        checkRow(row);
+        return slab(row).getInt(at(row, field));
+    }
+
+    @Override
+    public String brand(int row) { return StringDictionary.BRANDS.value(intField(row, BRAND)); }
+    @Override
+    public String processor(int row) { return StringDictionary.PROCESSORS.value(intField(row, PROCESSOR)); }
+    @Override
+    public int ram(int row) { return intField(row, RAM); }
+    @Override
+    public int storage(int row) { return intField(row, STORAGE); }
+    @Override
+    public int quantity(int row) { return intField(row, QUANTITY); }
+
+    @Override
+    public long priceCents(int row) {
+        checkRow(row);
+        return slab(row).getLong(at(row, PRICE));
+    }
+
+    @Override
+    public String model(int row) {
+        checkRow(row);
+        return new String(modelBytes(row), StandardCharsets.UTF_8);
+    }
+
+    private byte[] modelBytes(int row) {
+        ByteBuffer s = slab(row);
+        long offset = s.getLong(at(row, MODEL_AT));
+        byte[] bytes = new byte[s.getInt(at(row, MODEL_LEN))];
+        arena.get((int) (offset >>> ARENA_SHIFT)).get((int) (offset & (ARENA_SLAB_BYTES - 1)), bytes);
+        return bytes;
+    }
+
+    // --- String arena ---
+    private long append(byte[] bytes) {
+        if (bytes.length > ARENA_SLAB_BYTES) throw new IllegalArgumentException("model name too long");
+        int slab = (int) (arenaEnd >>> ARENA_SHIFT);
+        int pos = (int) (arenaEnd & (ARENA_SLAB_BYTES - 1));
+        if (pos + bytes.length > ARENA_SLAB_BYTES) {  // rest of this slab stays unused
+            slab++;
+            pos = 0;
+            arenaEnd = (long) slab << ARENA_SHIFT;
+        }
+        if (slab == arena.size()) arena.add(ByteBuffer.allocateDirect(ARENA_SLAB_BYTES));
+        long offset = arenaEnd;
+        arena.get(slab).put(pos, bytes);
+        arenaEnd += bytes.length;
+        arenaLive += bytes.length;
+        return offset;
+    }
+
+    // Copies the live model names into fresh slabs and re-points every row
+    private void compactArena() {
+        List<ByteBuffer> old = arena;
+        arena = new ArrayList<>();
+        arenaEnd = 0;
+        arenaLive = 0;
+        for (int row = 0; row < size; row++) {
+            ByteBuffer s = slab(row);
+            long offset = s.getLong(at(row, MODEL_AT));
+            byte[] name = new byte[s.getInt(at(row, MODEL_LEN))];
+            old.get((int) (offset >>> ARENA_SHIFT)).get((int) (offset & (ARENA_SLAB_BYTES - 1)), name);
+            s.putLong(at(row, MODEL_AT), append(name));
+        }
+    }
+
+    // --- Model index ---
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int slotValue(int slot) {
+        return table.getInt(slot << 2);
+    }
+
+    private void setSlot(int slot, int value) {
+        table.putInt(slot << 2, value);
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int findSlot(String key, int h) {
+        int slot = h & tableMask;
+        while (true) {
+            int entry = slotValue(slot);
+            if (entry == 0) return slot;
+            int row = entry - 1;
+            ByteBuffer s = slab(row);
+            if (s.getInt(at(row, HASH)) == h
+                    && LaptopIndex.key(new String(modelBytes(row), StandardCharsets.UTF_8)).equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & tableMask;
+        }
+    }
+
+    // Slot that points at row (whose hash is h)
+    private int slotOfRow(int row, int h) {
+        int slot = h & tableMask;
+        while (slotValue(slot) != row + 1) slot = (slot + 1) & tableMask;
+        return slot;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void clearSlot(int slot) {
+        int mask = tableMask;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (slotValue(next) != 0) {
+            int row = slotValue(next) - 1;
+            int home = slab(row).getInt(at(row, HASH)) & mask;
+            // move the entry back if its home is not in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                setSlot(hole, slotValue(next));
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        setSlot(hole, 0);
+    }
+
+    private void growTable() {
+        tableMask = tableMask * 2 + 1;
+        table = newTable(tableMask + 1);
+        for (int row = 0; row < size; row++) {
+            int slot = slab(row).getInt(at(row, HASH)) & tableMask;
+            while (slotValue(slot) != 0) slot = (slot + 1) & tableMask;
+            setSlot(slot, row + 1);
+        }
+    }
+
+    // --- Mutations ---
+    @Override
+    public int add(String brandName, String modelName, String processorName, int ramGb, int storageGb,
+                   long price, int qty) {
+        String key = LaptopIndex.key(modelName);
+        int h = hash(key);
+        int slot = findSlot(key, h);
+        if (slotValue(slot) != 0) return -1;
+
+        int row = size;
+        if ((row >>> SLAB_SHIFT) == slabs.size()) {
+            slabs.add(ByteBuffer.allocateDirect(SLAB_ROWS * RECORD_BYTES).order(ByteOrder.nativeOrder()));
+        }
+        byte[] name = (modelName == null ? "" : modelName).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer s = slab(row);
+        int base = at(row, 0);
+        s.putInt(base + BRAND, StringDictionary.BRANDS.code(brandName));
+        s.putInt(base + PROCESSOR, StringDictionary.PROCESSORS.code(processorName));
+        s.putInt(base + RAM, ramGb);
+        s.putInt(base + STORAGE, storageGb);
+        s.putInt(base + QUANTITY, qty);
+        s.putInt(base + HASH, h);
+        s.putLong(base + PRICE, price);
+        s.putLong(base + MODEL_AT, append(name));
+        s.putInt(base + MODEL_LEN, name.length);
+        size++;
+        setSlot(slot, row + 1);
+        if (size * 2L > tableMask + 1L) growTable();
+        return row;
+    }
+
+    @Override
+    public boolean remove(String modelName) {
+        String key = LaptopIndex.key(modelName);
+        int h = hash(key);
+        int slot = findSlot(key, h);
+        int entry = slotValue(slot);
+        if (entry == 0) return false;
+        int row = entry - 1;
+        arenaLive -= slab(row).getInt(at(row, MODEL_LEN));
+        clearSlot(slot);
+
+        int last = size - 1;
+        if (row != last) {
+            int lastHash = slab(last).getInt(at(last, HASH));
+            setSlot(slotOfRow(last, lastHash), row + 1);
+            ByteBuffer from = slab(last);
+            ByteBuffer to = slab(row);
+            to.put(at(row, 0), from, at(last, 0), RECORD_BYTES);
+        }
+        size--;
+        if (arenaEnd > ARENA_SLAB_BYTES && arenaEnd - arenaLive > arenaLive) compactArena();
+        return true;
+    }
+
+    @Override
+    public int rowOf(String modelName) {
+        String key = LaptopIndex.key(modelName);
+        return slotValue(findSlot(key, hash(key))) - 1;
+    }
+
+    @Override
+    public boolean setQuantity(String modelName, int qty) {
+        int row = rowOf(modelName);
+        if (row < 0) return false;
+        slab(row).putInt(at(row, QUANTITY), qty);
+        return true;
+    }
+
+    // --- Scans ---
+    @Override
+    public int[] rowsOfBrand(String brandName) {
+        boolean[] match = StringDictionary.BRANDS.matching(brandName);
+        int[] rows = new int[countByBrand(match)];
+        for (int row = 0, n = 0; row < size; row++) {
+            if (match[slab(row).getInt(at(row, BRAND))]) rows[n++] = row;
+        }
+        return rows;
+    }
+
+    @Override
+    public int countByBrand(String brandName) {
+        return countByBrand(StringDictionary.BRANDS.matching(brandName));
+    }
+
+    private int countByBrand(boolean[] match) {
+        int count = 0;
+        for (int row = 0; row < size; row++) if (match[slab(row).getInt(at(row, BRAND))]) count++;
+        return count;
+    }
+
+    @Override
+    public long totalStockValueCents() {
+        long total = 0;
+        for (int s = 0; s < slabs.size(); s++) {
+            ByteBuffer slab = slabs.get(s);
+            int rows = Math.min(SLAB_ROWS, size - (s << SLAB_SHIFT));
+            for (int i = 0, p = 0; i < rows; i++, p += RECORD_BYTES) {
+                total += slab.getLong(p + PRICE) * slab.getInt(p + QUANTITY);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long totalPriceCents() {
+        long total = 0;
+        for (int s = 0; s < slabs.size(); s++) {
+            ByteBuffer slab = slabs.get(s);
+            int rows = Math.min(SLAB_ROWS, size - (s << SLAB_SHIFT));
+            for (int i = 0, p = 0; i < rows; i++, p += RECORD_BYTES) total += slab.getLong(p + PRICE);
+        }
+        return total;
+    }
+
+    @Override
+    public double averagePrice() {
+        return (size == 0) ? 0 : totalPriceCents() / 100.0 / size;
+    }
+
+    @Override
+    public long totalUnits() {
+        long total = 0;
+        for (int s = 0; s < slabs.size(); s++) {
+            ByteBuffer slab = slabs.get(s);
+            int rows = Math.min(SLAB_ROWS, size - (s << SLAB_SHIFT));
+            for (int i = 0, p = 0; i < rows; i++, p += RECORD_BYTES) total += slab.getInt(p + QUANTITY);
+        }
+        return total;
+    }
+
+    // Bytes of direct memory held (record slabs, arena, index)
+    public long offHeapBytes() {
+        return (long) slabs.size() * SLAB_ROWS * RECORD_BYTES + (long) arena.size() * ARENA_SLAB_BYTES + table.capacity();
+    }
+
+    // --- Loading ---
+    // Fills a store from dataDir: the binary snapshot if present (read through its mapping,
+    // no Laptop objects), otherwise the CSV; then replays any journal segments on top.
+    public static OffHeapInventory load(Path dataDir) throws IOException {
+        Path bin = dataDir.resolve("laptops.bin");
+        Path csv = dataDir.resolve("laptops.csv");
+        OffHeapInventory store;
+        long parts = InventoryPartitions.lastModified(dataDir);
+        if (parts >= 0 && parts >= modified(bin) && parts >= modified(csv)) {
+            store = new OffHeapInventory();
+            for (Path part : InventoryPartitions.files(dataDir)) readCsv(part, store);
+        } else if (Files.exists(bin) && (!Files.exists(csv)
+                || Files.getLastModifiedTime(bin).compareTo(Files.getLastModifiedTime(csv)) >= 0)) {
+            BinarySnapshot snap = BinarySnapshot.open(bin);
+            store = new OffHeapInventory(snap.size());
+            for (int row = 0; row < snap.size(); row++) {
+                store.add(snap.brand(row), snap.modelUncached(row), snap.processor(row), snap.ram(row),
+                        snap.storage(row), snap.priceCents(row), snap.quantity(row));
+            }
+        } else {
+            store = new OffHeapInventory();
+            if (Files.exists(csv)) readCsv(csv, store);
+        }
+        new InventoryJournal(dataDir.resolve("laptops.journal").toString()).replay(new InventoryJournal.Target() {
+            @Override
+            public void replayAdd(Laptop laptop) { store.add(laptop); }
+
+            @Override
+            public void replayRemove(String model) { store.remove(model); }
+
+            @Override
+            public void replaySetQuantity(String model, int quantity) { store.setQuantity(model, quantity); }
+        });
+        return store;
+    }
+
+    private static long modified(Path file) throws IOException {
+        return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+    }
+
+    // Same parsing rules as LaptopManagementSystem.loadFromFile
+    private static void readCsv(Path file, OffHeapInventory store) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] d = line.split(",", -1);
+                if (d.length < 7) continue;
+                try {
+                    int ram = Integer.parseInt(d[3]);
+                    int storage = Integer.parseInt(d[4]);
+                    double price = Double.parseDouble(d[5]);
+                    int qty = Integer.parseInt(d[6]);
+                    if (ram < 0 || storage < 0 || price < 0 || qty < 0) continue;
+                    store.add(d[0], d[1], d[2], ram, storage, InventoryStats.toCents(price), qty);
+                } catch (Exception parseEx) {
+                    System.out.println("Skipping bad line in data: " + parseEx.getMessage());
+                }
+            }
+        }
+    }
+}
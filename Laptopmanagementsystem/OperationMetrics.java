@@ -0,0 +1,156 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-operation call counts and latency histograms. Recording is a nanoTime pair plus a few
+// uncontended atomic adds, cheap enough to leave on around every call:
+//     long start = System.nanoTime();
+//     try { ... } finally { timer.stop(start); }
+// Latencies go into power-of-two buckets (bucket b holds [2^(b-1), 2^b) ns), which bounds
+// percentile estimates to within a factor of two at a fixed 64 longs per operation.
+public class OperationMetrics {
+    private static final int BUCKETS = 64;
+
+    public static final class Timer {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        Timer(String name) {
+            this.name = name;
+        }
+
+        public void stop(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            count.increment();
+            totalNanos.add(nanos);
+            buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(nanos));
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) max = maxNanos.get();
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return count.sum(); }
+        public long getTotalNanos() { return totalNanos.sum(); }
+        public long getMaxNanos() { return maxNanos.get(); }
+
+        public double getMeanNanos() {
+            long n = getCount();
+            return (n == 0) ? 0 : (double) getTotalNanos() / n;
+        }
+
+        // Upper bound of the bucket holding the given quantile (0..1), capped at the largest
+        // latency seen
+        public long percentileNanos(double quantile) {
+            long[] snapshot = snapshot();
+            long total = 0;
+            for (long c : snapshot) total += c;
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += snapshot[b];
+                if (seen >= Math.max(rank, 1)) return Math.min(upperBound(b), getMaxNanos());
+            }
+            return getMaxNanos();
+        }
+
+        private long[] snapshot() {
+            long[] s = new long[BUCKETS];
+            for (int b = 0; b < BUCKETS; b++) s[b] = buckets.get(b);
+            return s;
+        }
+    }
+
+    private final List<Timer> timers = new CopyOnWriteArrayList<>();
+    private final long startedMillis = System.currentTimeMillis();
+    private final long startedNanos = System.nanoTime();
+
+    // Registers a timer; call once per operation and keep the result
+    public Timer timer(String name) {
+        Timer t = new Timer(name);
+        timers.add(t);
+        return t;
+    }
+
+    public List<Timer> timers() {
+        return new ArrayList<>(timers);
+    }
+
+    static long upperBound(int bucket) {
+        return (bucket >= 63) ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    // --- Output ---
+    public String toJson() {
+        double uptimeSec = (System.nanoTime() - startedNanos) / 1e9;
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("{\n  \"startedAtEpochMs\": ").append(startedMillis)
+                .append(",\n  \"uptimeSec\": ").append(fmt(uptimeSec))
+                .append(",\n  \"operations\": {");
+        boolean first = true;
+        for (Timer t : timers) {
+            long n = t.getCount();
+            if (n == 0) continue;
+            sb.append(first ? "\n" : ",\n");
+            first = false;
+            sb.append("    \"").append(t.name).append("\": {")
+                    .append("\"count\": ").append(n)
+                    .append(", \"opsPerSec\": ").append(fmt(uptimeSec > 0 ? n / uptimeSec : 0))
+                    .append(", \"totalMs\": ").append(fmt(t.getTotalNanos() / 1e6))
+                    .append(", \"meanUs\": ").append(fmt(t.getMeanNanos() / 1e3))
+                    .append(", \"p50Us\": ").append(fmt(t.percentileNanos(0.50) / 1e3))
+                    .append(", \"p90Us\": ").append(fmt(t.percentileNanos(0.90) / 1e3))
+                    .append(", \"p99Us\": ").append(fmt(t.percentileNanos(0.99) / 1e3))
+                    .append(", \"maxUs\": ").append(fmt(t.getMaxNanos() / 1e3))
+                    .append(", \"histogram\": [");
+            long[] s = t.snapshot();
+            boolean firstBucket = true;
+            for (int b = 0; b < BUCKETS; b++) {
+                if (s[b] == 0) continue;
+                if (!firstBucket) sb.append(", ");
+                firstBucket = false;
+                sb.append("{\"leNanos\": ").append(upperBound(b)).append(", \"count\": ").append(s[b]).append('}');
+            }
+            sb.append("]}");
+        }
+        sb.append(first ? "}\n}\n" : "\n  }\n}\n");
+        return sb.toString();
+    }
+
+    private static String fmt(double v) {
+        return String.format(Locale.ROOT, "%.3f", v);
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, toJson().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Human-readable table, one line per operation that has been called
+    public void print() {
+        System.out.printf("%-22s %10s %12s %12s %12s %12s%n", "Operation", "Calls", "Mean (us)", "p50 (us)", "p99 (us)", "Max (us)");
+        for (Timer t : timers) {
+            if (t.getCount() == 0) continue;
+            System.out.printf("%-22s %10d %12.1f %12.1f %12.1f %12.1f%n", t.name, t.getCount(), t.getMeanNanos() / 1e3,
+                    t.percentileNanos(0.50) / 1e3, t.percentileNanos(0.99) / 1e3, t.getMaxNanos() / 1e3);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Loads large laptops.csv-format files on all cores. The file is cut into byte ranges
+// that start just after a newline, each range is memory-mapped and parsed by its own task,
+// and the per-range results are concatenated in file order.
+//
+// Parsing follows loadFromFile exactly: blank lines and lines with fewer than 7 fields are
+// ignored, rows with negative numbers are dropped, and a field that fails to parse produces
+// the same "Skipping bad line" message (the JDK parser is used to build that message).
+public class ParallelCsvLoader {
+    private static final int FIELDS = 7;
+    private static final long MAX_CHUNK = 1L << 30;
+
+    public static class Result {
+        public final List<Laptop> laptops;
+        public final List<String> badLines;
+
+        Result(List<Laptop> laptops, List<String> badLines) {
+            this.laptops = laptops;
+            this.badLines = badLines;
+        }
+    }
+
+    public static Result load(Path file) throws IOException {
+        return load(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Result load(Path file, int threads) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            int chunks = (int) Math.max(Math.max(1, threads), (size + MAX_CHUNK - 1) / MAX_CHUNK);
+            long[] bounds = chunkBounds(ch, size, chunks);
+
+            List<Result> parts = IntStream.range(0, bounds.length - 1).parallel()
+                    .mapToObj(i -> parseRange(ch, bounds[i], bounds[i + 1]))
+                    .collect(Collectors.toList());
+
+            List<Laptop> laptops = new ArrayList<>();
+            List<String> badLines = new ArrayList<>();
+            for (Result r : parts) {
+                laptops.addAll(r.laptops);
+                badLines.addAll(r.badLines);
+            }
+            return new Result(laptops, badLines);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Range starts: 0, then for each nominal split point the byte after the next '\n'
+    private static long[] chunkBounds(FileChannel ch, long size, int chunks) throws IOException {
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        ByteBuffer one = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long pos = Math.max(bounds[i - 1], size * i / chunks);
+            search:
+            while (pos < size) {
+                one.clear();
+                int n = ch.read(one, pos);
+                if (n <= 0) break;
+                for (int j = 0; j < n; j++) {
+                    if (one.get(j) == '\n') {
+                        pos += j + 1;
+                        break search;
+                    }
+                }
+                pos += n;
+            }
+            bounds[i] = Math.min(pos, size);
+        }
+        return bounds;
+    }
+
+    private static Result parseRange(FileChannel ch, long start, long end) {
+        List<Laptop> laptops = new ArrayList<>();
+        List<String> badLines = new ArrayList<>();
+        if (end <= start) return new Result(laptops, badLines);
+        MappedByteBuffer buf;
+        try {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LineTokenizer tok = new LineTokenizer();
+        int limit = buf.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && buf.get(lineEnd - 1) == '\r') lineEnd--;
+            tok.parse(buf, lineStart, lineEnd, laptops, badLines);
+            lineStart = next;
+        }
+        return new Result(laptops, badLines);
+    }
+
+    // Reusable per-task tokenizer: copies one line into a scratch array and records field
+    // boundaries, so no String is created for the numeric fields on the happy path
+    private static class LineTokenizer {
+        private byte[] line = new byte[256];
+        private final int[] from = new int[FIELDS];
+        private final int[] to = new int[FIELDS];
+
+        void parse(MappedByteBuffer buf, int start, int end, List<Laptop> out, List<String> badLines) {
+            int len = end - start;
+            if (len > line.length) line = new byte[Math.max(len, line.length * 2)];
+            buf.get(start, line, 0, len);
+            if (isBlank(len)) return;
+
+            int field = 0;
+            from[0] = 0;
+            for (int i = 0; i < len && field < FIELDS; i++) {
+                if (line[i] == ',') {
+                    to[field] = i;
+                    if (++field < FIELDS) from[field] = i + 1;
+                }
+            }
+            if (field < FIELDS) {
+                if (field < FIELDS - 1) return; // fewer than 7 fields
+                to[FIELDS - 1] = len;
+            }
+            try {
+                int ram = parseInt(3);
+                int storage = parseInt(4);
+                double price = parseDouble(5);
+                int qty = parseInt(6);
+                if (ram < 0 || storage < 0 || price < 0 || qty < 0) return;
+                out.add(new Laptop(text(0), text(1), text(2), ram, storage, price, qty));
+            } catch (NumberFormatException e) {
+                badLines.add("Skipping bad line in data: " + e.getMessage());
+            }
+        }
+
+        private boolean isBlank(int len) {
+            for (int i = 0; i < len; i++) if ((line[i] & 0xFF) > ' ') return false;
+            return true;
+        }
+
+        private String text(int f) {
+            return new String(line, from[f], to[f] - from[f], StandardCharsets.UTF_8);
+        }
+
+        private int parseInt(int f) {
+            int i = from[f], end = to[f];
+            boolean neg = i < end && line[i] == '-';
+            if (neg) i++;
+            if (i == end || end - i > 9) return Integer.parseInt(text(f));
+            int v = 0;
+            for (; i < end; i++) {
+                int d = line[i] - '0';
+                if (d < 0 || d > 9) return Integer.parseInt(text(f));
+                v = v * 10 + d;
+            }
+            return neg ? -v : v;
+        }
+
+        // Fast path for plain decimals such as 54999.00; anything else goes to Double.parseDouble
+        private double parseDouble(int f) {
+            int i = from[f], end = to[f];
+            boolean neg = i < end && line[i] == '-';
+            if (neg) i++;
+            long mantissa = 0;
+            int digits = 0, scale = 0;
+            boolean dot = false;
+            for (; i < end; i++) {
+                byte b = line[i];
+                if (b == '.' && !dot) {
+                    dot = true;
+                } else if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (dot) scale++;
+                    digits++;
+                } else {
+                    return Double.parseDouble(text(f));
+                }
+            }
+            if (digits == 0 || digits > 15 || scale > 10) return Double.parseDouble(text(f));
+            double v = mantissa / POW10[scale];
+            return neg ? -v : v;
+        }
+    }
+
+    private static final double[] POW10 = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10};
+}
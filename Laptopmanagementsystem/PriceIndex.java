@@ -0,0 +1,133 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+// Laptops ordered by price, kept up to date on add/remove. Each exact paise value maps to
+// its laptop, or to a small list when several share the price (kept in insertion order,
+// like a stable sort). Locating a price (or the start of a range) is O(log n), so nothing
+// is ever re-sorted.
+public class PriceIndex implements InventoryListener {
+    private final NavigableMap<Long, Object> byPrice = new TreeMap<>();
+    private int size;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void laptopAdded(Laptop laptop) {
+        byPrice.merge(InventoryStats.toCents(laptop.getPrice()), laptop, (existing, added) -> {
+            if (existing instanceof Laptop) {
+                List<Laptop> ties = new ArrayList<>(2);
+                ties.add((Laptop) existing);
+                ties.add((Laptop) added);
+                return ties;
+            }
+            ((List<Laptop>) existing).add((Laptop) added);
+            return existing;
+        });
+        size++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void laptopRemoved(Laptop laptop) {
+        long price = InventoryStats.toCents(laptop.getPrice());
+        Object entry = byPrice.get(price);
+        if (entry == laptop) {
+            byPrice.remove(price);
+            size--;
+        } else if (entry instanceof List) {
+            List<Laptop> ties = (List<Laptop>) entry;
+            if (ties.remove(laptop)) {
+                size--;
+                if (ties.size() == 1) byPrice.put(price, ties.get(0));
+            }
+        }
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        // price order does not depend on stock
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Every laptop, cheapest first
+    public Iterable<Laptop> inPriceOrder() {
+        return () -> new Flattener(byPrice.values().iterator());
+    }
+
+    // Laptops priced from min to max (both inclusive), cheapest first
+    public Iterable<Laptop> between(double min, double max) {
+        long lo = InventoryStats.toCents(min);
+        long hi = InventoryStats.toCents(max);
+        if (lo > hi) return Collections.emptyList();
+        return () -> new Flattener(byPrice.subMap(lo, true, hi, true).values().iterator());
+    }
+
+    // The n cheapest laptops (fewer if the inventory is smaller)
+    public List<Laptop> cheapest(int n) {
+        List<Laptop> result = new ArrayList<>(Math.min(n, size));
+        for (Laptop l : inPriceOrder()) {
+            if (result.size() >= n) break;
+            result.add(l);
+        }
+        return result;
+    }
+
+    public void clear() {
+        byPrice.clear();
+        size = 0;
+    }
+
+    // Walks the map values, expanding tie lists in place
+    private static class Flattener implements Iterator<Laptop> {
+        private final Iterator<Object> entries;
+        private List<?> ties;
+        private int tieIndex;
+        private Laptop next;
+
+        Flattener(Iterator<Object> entries) {
+            this.entries = entries;
+            advance();
+        }
+
+        private void advance() {
+            if (ties != null && tieIndex < ties.size()) {
+                next = (Laptop) ties.get(tieIndex++);
+                return;
+            }
+            ties = null;
+            if (!entries.hasNext()) {
+                next = null;
+                return;
+            }
+            Object entry = entries.next();
+            if (entry instanceof Laptop) {
+                next = (Laptop) entry;
+            } else {
+                ties = (List<?>) entry;
+                tieIndex = 1;
+                next = (Laptop) ties.get(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Laptop next() {
+            if (next == null) throw new NoSuchElementException();
+            Laptop result = next;
+            advance();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Parses each distinct processor string once into a structured entry and caches it.
+// Everything that ranks or compares processors (compareLaptops, spec search, ...) looks the
+// entry up here and works with its int score instead of re-scanning the string.
+public final class ProcessorCatalog {
+
+    public static final class Info {
+        public final String name;
+        public final String vendor;     // Intel, AMD, Apple or Other
+        public final int tier;          // 3/5/7/9 for Core iN and Ryzen N, 0 if unknown
+        public final int generation;    // 0 if unknown
+        public final String suffix;     // e.g. "H", "HX", "U", "" if none
+        public final SpecQueryEngine.Family family;
+        public final int score;
+
+        private Info(String name, String vendor, int tier, int generation, String suffix,
+                     SpecQueryEngine.Family family, int score) {
+            this.name = name;
+            this.vendor = vendor;
+            this.tier = tier;
+            this.generation = generation;
+            this.suffix = suffix;
+            this.family = family;
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return vendor + " tier " + tier + " gen " + generation
+                    + (suffix.isEmpty() ? "" : " " + suffix) + " (score " + score + ")";
+        }
+    }
+
+    private static final Map<String, Info> CACHE = new ConcurrentHashMap<>();
+    private static final Pattern INTEL = Pattern.compile("\\bi([3579])\\b[-\\s]*(\\d{4,5})?([a-z]{0,2})\\b");
+    private static final Pattern RYZEN = Pattern.compile("ryzen\\s*([3579])\\b\\s*(?:pro\\s*)?(\\d{4})?([a-z]{0,2})\\b");
+    private static final Pattern ORDINAL_GEN = Pattern.compile("\\b(\\d{1,2})(?:st|nd|rd|th)\\b");
+    private static final Pattern APPLE = Pattern.compile("\\bm([1-9])\\b");
+    private static final Pattern SUFFIX = Pattern.compile("\\b(hx|hk|hs|h|u|p)\\b");
+
+    private ProcessorCatalog() {
+    }
+
+    public static Info get(String processor) {
+        String key = (processor == null) ? "" : processor;
+        Info info = CACHE.get(key);
+        return (info != null) ? info : CACHE.computeIfAbsent(key, ProcessorCatalog::parse);
+    }
+
+    public static int score(String processor) {
+        return get(processor).score;
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    private static Info parse(String name) {
+        String p = name.toLowerCase(Locale.ROOT);
+        String vendor = "Other";
+        int tier = 0;
+        int generation = 0;
+        String suffix = "";
+
+        Matcher m = INTEL.matcher(p);
+        Matcher r = RYZEN.matcher(p);
+        Matcher a = APPLE.matcher(p);
+        if (m.find()) {
+            vendor = "Intel";
+            tier = m.group(1).charAt(0) - '0';
+            if (m.group(2) != null) {
+                // i7-1260P -> 12th gen, i5-8250U -> 8th gen
+                String num = m.group(2);
+                generation = (num.length() == 5 || num.charAt(0) == '1')
+                        ? Integer.parseInt(num.substring(0, 2)) : num.charAt(0) - '0';
+                suffix = m.group(3).toUpperCase(Locale.ROOT);
+            }
+        } else if (r.find()) {
+            vendor = "AMD";
+            tier = r.group(1).charAt(0) - '0';
+            if (r.group(2) != null) {
+                generation = r.group(2).charAt(0) - '0';
+                suffix = r.group(3).toUpperCase(Locale.ROOT);
+            }
+        } else if (p.contains("apple") || a.find()) {
+            vendor = "Apple";
+            if (a.find(0)) generation = a.group(1).charAt(0) - '0';
+        } else if (p.contains("intel")) {
+            vendor = "Intel";
+        } else if (p.contains("amd")) {
+            vendor = "AMD";
+        }
+        if (generation == 0) {
+            Matcher g = ORDINAL_GEN.matcher(p);
+            if (g.find()) generation = Integer.parseInt(g.group(1));
+        }
+        if (suffix.isEmpty()) {
+            Matcher s = SUFFIX.matcher(p);
+            if (s.find()) suffix = s.group(1).toUpperCase(Locale.ROOT);
+        }
+        return new Info(name, vendor, tier, generation, suffix, family(p), legacyScore(p));
+    }
+
+    private static SpecQueryEngine.Family family(String p) {
+        if (p.contains("i9")) return SpecQueryEngine.Family.I9;
+        if (p.contains("i7")) return SpecQueryEngine.Family.I7;
+        if (p.contains("i5")) return SpecQueryEngine.Family.I5;
+        if (p.contains("i3")) return SpecQueryEngine.Family.I3;
+        if (p.contains("ryzen 9")) return SpecQueryEngine.Family.RYZEN_9;
+        if (p.contains("ryzen 7")) return SpecQueryEngine.Family.RYZEN_7;
+        if (p.contains("ryzen 5")) return SpecQueryEngine.Family.RYZEN_5;
+        if (p.contains("ryzen 3")) return SpecQueryEngine.Family.RYZEN_3;
+        return SpecQueryEngine.Family.OTHER;
+    }
+
+    // The original compareLaptops heuristic, kept rule for rule so rankings do not change;
+    // it now runs once per distinct processor string instead of on every comparison.
+    private static int legacyScore(String proc) {
+        int score = 0;
+
+        // Intel Core
+        if (proc.contains("i9")) score += 90;
+        else if (proc.contains("i7")) score += 70;
+        else if (proc.contains("i5")) score += 50;
+        else if (proc.contains("i3")) score += 30;
+
+        // AMD Ryzen
+        if (proc.contains("ryzen 9")) score += 90;
+        else if (proc.contains("ryzen 7")) score += 70;
+        else if (proc.contains("ryzen 5")) score += 50;
+        else if (proc.contains("ryzen 3")) score += 30;
+
+        // Simple generation cues like "13th", "12th"
+        for (int gen = 3; gen <= 20; gen++) {
+            if (proc.contains(gen + "th")) { score += gen; break; }
+        }
+
+        // Basic uplift for known mobile suffixes (very rough heuristic)
+        if (proc.contains("hx") || proc.contains("hk")) score += 6;
+        if (proc.contains("h")) score += 4;
+        if (proc.contains("u")) score += 1;
+
+        return score;
+    }
+}
@@ -1,9 +1,25 @@
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 // Abstract base class for products
 public abstract class Product {
+    private static final AtomicIntegerFieldUpdater<Product> QUANTITY =
+            AtomicIntegerFieldUpdater.newUpdater(Product.class, "quantity");
+
     private final String brand;
     private final String model;
     private final double price;
-    private int quantity;
+    // volatile + CAS so order threads can reserve stock without locking
+    private volatile int quantity;
+    private volatile QuantityListener quantityListener;
+    // The quantity the owning inventory's running totals include (see InventoryStats). A
+    // lock-free reserve moves quantity before its notification is delivered, so this can lag
+    // behind it; only touched under the inventory's write lock.
+    int countedQuantity;
+
+    // Notified after every quantity change so inventory-wide aggregates stay current
+    public interface QuantityListener {
+        void quantityChanged(Product product, int oldQuantity, int newQuantity);
+    }
 
     public Product(String brand, String model, double price, int quantity) {
         this.brand = brand;
@@ -29,7 +45,40 @@ public abstract class Product {
     }
 
     public void setQuantity(int quantity) {
-        this.quantity = quantity;
+        int oldQuantity = QUANTITY.getAndSet(this, quantity);
+        fireQuantityChanged(oldQuantity, quantity);
+    }
+
+    // Takes units out of stock atomically; fails (changing nothing) if fewer are available,
+    // so the quantity never drops below zero however many threads reserve at once
+    public boolean reserve(int units) {
+        if (units < 0) throw new IllegalArgumentException("units must not be negative");
+        while (true) {
+            int current = quantity;
+            if (current < units) return false;
+            if (QUANTITY.compareAndSet(this, current, current - units)) {
+                fireQuantityChanged(current, current - units);
+                return true;
+            }
+        }
+    }
+
+    // Puts previously reserved (or newly received) units back into stock atomically
+    public void release(int units) {
+        if (units < 0) throw new IllegalArgumentException("units must not be negative");
+        int oldQuantity = QUANTITY.getAndAdd(this, units);
+        fireQuantityChanged(oldQuantity, oldQuantity + units);
+    }
+
+    private void fireQuantityChanged(int oldQuantity, int newQuantity) {
+        QuantityListener listener = quantityListener;
+        if (listener != null && oldQuantity != newQuantity) {
+            listener.quantityChanged(this, oldQuantity, newQuantity);
+        }
+    }
+
+    public void setQuantityListener(QuantityListener quantityListener) {
+        this.quantityListener = quantityListener;
     }
 
     // Abstract method to display product information
@@ -0,0 +1,224 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Results of repeated read queries (brand searches, price ranges, spec filters ...), kept
+// until a change that could alter them. Each entry says which laptops it depends on: one
+// brand or any brand, optionally narrowed by a filter (e.g. "price between 40000 and 60000"),
+// and whether stock changes matter. As a listener the cache drops exactly the entries whose
+// dependency matches the laptop that was added, removed or changed.
+//
+// Bounded by entry count and by weight (laptops held in results); the least recently used
+// entries go first. A query computed outside the inventory lock passes the stamp it read
+// before starting, and its result is not stored if anything changed meanwhile.
+public class QueryCache implements InventoryListener {
+
+    // Which changes invalidate an entry
+    public static final class Dependency {
+        static final int MEMBERSHIP = 0;   // adds and removes only
+        static final int STOCK = 1;        // also a quantity going to or from zero
+        static final int QUANTITY = 2;     // also any quantity change
+
+        final String brandKey;             // null: any brand
+        final Predicate<Laptop> filter;    // null: every laptop of the brand(s)
+        final int sensitivity;
+
+        private Dependency(String brandKey, Predicate<Laptop> filter, int sensitivity) {
+            this.brandKey = brandKey;
+            this.filter = filter;
+            this.sensitivity = sensitivity;
+        }
+
+        public static Dependency onBrand(String brand) {
+            return new Dependency(LaptopIndex.key(brand), null, MEMBERSHIP);
+        }
+
+        public static Dependency onAny() {
+            return new Dependency(null, null, MEMBERSHIP);
+        }
+
+        public static Dependency onMatching(Predicate<Laptop> filter) {
+            return new Dependency(null, filter, MEMBERSHIP);
+        }
+
+        public Dependency andStock() {
+            return new Dependency(brandKey, filter, Math.max(sensitivity, STOCK));
+        }
+
+        public Dependency andQuantity() {
+            return new Dependency(brandKey, filter, QUANTITY);
+        }
+
+        boolean affectedBy(Laptop laptop) {
+            return filter == null || filter.test(laptop);
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final Object value;
+        final int weight;
+        final Dependency dependency;
+
+        Entry(String key, Object value, int weight, Dependency dependency) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.dependency = dependency;
+        }
+    }
+
+    private int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Entry>> byBrand = new HashMap<>();
+    private final Set<Entry> anyBrand = new HashSet<>();
+    private long weight;
+    private long stamp;
+    private long hits;
+    private long misses;
+    private long invalidations;
+    private long evictions;
+
+    // maxEntries 0 turns caching off (lookups still count as misses)
+    public QueryCache(int maxEntries, long maxWeight) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.maxWeight = maxWeight;
+    }
+
+    // --- Lookups ---
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(String key) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return (T) e.value;
+    }
+
+    // Read before computing a result; put() ignores the result if the inventory changed since
+    public synchronized long stamp() {
+        return stamp;
+    }
+
+    // weight: number of laptops the result holds (results over a quarter of the budget are not kept)
+    public synchronized void put(String key, Object value, int weight, Dependency dependency, long stampBefore) {
+        if (maxEntries == 0 || stampBefore != stamp || weight > maxWeight / 4) return;
+        Entry old = entries.get(key);
+        if (old != null) remove(old);
+        Entry e = new Entry(key, value, Math.max(1, weight), dependency);
+        entries.put(key, e);
+        if (dependency.brandKey == null) anyBrand.add(e);
+        else byBrand.computeIfAbsent(dependency.brandKey, k -> new HashSet<>()).add(e);
+        this.weight += e.weight;
+        evictToFit();
+    }
+
+    private void evictToFit() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || this.weight > maxWeight) {
+            Entry victim = eldest.next();
+            eldest.remove();
+            unlink(victim);
+            evictions++;
+        }
+    }
+
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    // Changes the entry limit at run time; 0 turns caching off and drops what is cached
+    public synchronized void setMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        evictToFit();
+    }
+
+    private void remove(Entry e) {
+        entries.remove(e.key);
+        unlink(e);
+    }
+
+    private void unlink(Entry e) {
+        weight -= e.weight;
+        if (e.dependency.brandKey == null) {
+            anyBrand.remove(e);
+            return;
+        }
+        Set<Entry> sameBrand = byBrand.get(e.dependency.brandKey);
+        if (sameBrand != null) {
+            sameBrand.remove(e);
+            if (sameBrand.isEmpty()) byBrand.remove(e.dependency.brandKey);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        byBrand.clear();
+        anyBrand.clear();
+        weight = 0;
+        stamp++;
+    }
+
+    // --- Invalidation ---
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        invalidate(laptop, Dependency.MEMBERSHIP);
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        invalidate(laptop, Dependency.MEMBERSHIP);
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        boolean stockChanged = (oldQuantity > 0) != (newQuantity > 0);
+        invalidate(laptop, stockChanged ? Dependency.STOCK : Dependency.QUANTITY);
+    }
+
+    // Drops the entries that depend on the laptop and care about changes of this kind
+    private synchronized void invalidate(Laptop laptop, int kind) {
+        stamp++;
+        if (entries.isEmpty()) return;
+        List<Entry> stale = new ArrayList<>();
+        Set<Entry> sameBrand = byBrand.get(LaptopIndex.key(laptop.getBrand()));
+        if (sameBrand != null) collect(sameBrand, laptop, kind, stale);
+        collect(anyBrand, laptop, kind, stale);
+        for (Entry e : stale) remove(e);
+        invalidations += stale.size();
+    }
+
+    private static void collect(Set<Entry> candidates, Laptop laptop, int kind, List<Entry> stale) {
+        for (Entry e : candidates) {
+            if (e.dependency.sensitivity >= kind && e.dependency.affectedBy(laptop)) stale.add(e);
+        }
+    }
+
+    // --- Counters ---
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getInvalidations() { return invalidations; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized double hitRate() {
+        long lookups = hits + misses;
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("hits=%d, misses=%d, hitRate=%.1f%%, entries=%d, weight=%d, invalidations=%d, evictions=%d",
+                hits, misses, hitRate() * 100, entries.size(), weight, invalidations, evictions);
+    }
+}
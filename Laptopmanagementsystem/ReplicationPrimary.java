@@ -0,0 +1,200 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Primary side of log-shipping replication. As a listener it numbers every change with a log
+// sequence number (LSN) and keeps the last LOG_CAPACITY records in memory; each replica that
+// connects to the local port gets its own sender thread that streams records as they happen.
+//
+// Protocol (one line each, records in the journal's A/R/Q format):
+//   replica -> primary   HELLO <epoch> <lsn>        where the replica's copy stands (0 0 if new)
+//   primary -> replica   SNAPSHOT <epoch> <lsn> <n> followed by n A records: the whole inventory
+//                        L <lsn> <record>          one change
+//                        PING <lsn>                nothing new; the primary is at <lsn>
+// The epoch identifies one run of the primary (LSNs restart with it). A replica from the same
+// epoch whose position is still in the in-memory log gets only what it missed; anything else
+// (new replica, primary restarted, replica fell more than LOG_CAPACITY behind) gets a snapshot.
+public class ReplicationPrimary implements InventoryListener, Closeable {
+    static final int LOG_CAPACITY = 1 << 16;
+    static final long PING_MILLIS = 500;
+    private static final int MAX_BATCH = 4096;
+
+    // The inventory at one point and the LSN of the last change it includes
+    public static final class Baseline {
+        final long lsn;
+        final Laptop[] items;
+        final int[] quantities;
+
+        public Baseline(long lsn, Laptop[] items, int[] quantities) {
+            this.lsn = lsn;
+            this.items = items;
+            this.quantities = quantities;
+        }
+    }
+
+    // Must take the baseline atomically with respect to changes (under the inventory lock)
+    public interface Source {
+        Baseline baseline();
+    }
+
+    private final long epoch = System.currentTimeMillis();
+    private final String[] log = new String[LOG_CAPACITY];
+    private long lastLsn;    // records lastLsn - LOG_CAPACITY + 1 .. lastLsn are in the log
+    private final Source source;
+    private final ServerSocket server;
+    private final List<Socket> replicas = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public ReplicationPrimary(int port, Source source) throws IOException {
+        this.source = source;
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "replication-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public synchronized long lastLsn() {
+        return lastLsn;
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    // --- Change log ---
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        append(InventoryJournal.encodeAdd(laptop));
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        append(InventoryJournal.encodeRemove(laptop.getModel()));
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        // the current value, read under the inventory write lock (see InventoryJournal), so
+        // notifications that arrive out of order cannot leave replicas on a stale quantity
+        append(InventoryJournal.encodeQuantity(laptop.getModel(), laptop.getQuantity()));
+    }
+
+    private synchronized void append(String record) {
+        lastLsn++;
+        log[(int) (lastLsn % LOG_CAPACITY)] = record;
+        notifyAll();
+    }
+
+    // --- Shipping ---
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket s = server.accept();
+                s.setTcpNoDelay(true);
+                replicas.add(s);
+                Thread sender = new Thread(() -> serve(s), "replication-sender-" + s.getPort());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (!closed) System.out.println("Replication accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket s) {
+        try (s;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            String hello = in.readLine();
+            String[] parts = (hello == null) ? new String[0] : hello.split(" ");
+            if (parts.length != 3 || !parts[0].equals("HELLO")) throw new IOException("bad handshake: " + hello);
+            long replicaEpoch = Long.parseLong(parts[1]);
+            long replicaLsn = Long.parseLong(parts[2]);
+            long next;
+            synchronized (this) {
+                boolean inLog = replicaEpoch == epoch && replicaLsn <= lastLsn && replicaLsn >= lastLsn - LOG_CAPACITY;
+                next = inLog ? replicaLsn + 1 : -1;
+            }
+            if (next < 0) next = sendSnapshot(out) + 1;
+
+            List<String> batch = new ArrayList<>();
+            while (!closed) {
+                long upTo;
+                boolean tooFarBehind;
+                synchronized (this) {
+                    if (next > lastLsn) wait(PING_MILLIS);
+                    upTo = Math.min(lastLsn, next + MAX_BATCH - 1);
+                    tooFarBehind = next <= lastLsn - LOG_CAPACITY;
+                    if (!tooFarBehind) {
+                        for (long lsn = next; lsn <= upTo; lsn++) batch.add(log[(int) (lsn % LOG_CAPACITY)]);
+                    }
+                }
+                if (tooFarBehind) {
+                    next = sendSnapshot(out) + 1;
+                    continue;
+                }
+                if (batch.isEmpty()) {
+                    out.write("PING " + upTo + "\n");
+                } else {
+                    for (String record : batch) out.write("L " + (next++) + " " + record + "\n");
+                    batch.clear();
+                }
+                out.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!closed) System.out.println("Replica " + s.getRemoteSocketAddress() + " disconnected: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            replicas.remove(s);
+        }
+    }
+
+    // Sends the whole inventory; returns the LSN it is current to
+    private long sendSnapshot(Writer out) throws IOException {
+        Baseline b = source.baseline();
+        out.write("SNAPSHOT " + epoch + " " + b.lsn + " " + b.items.length + "\n");
+        for (int i = 0; i < b.items.length; i++) {
+            out.write(InventoryJournal.encodeAdd(new Laptop(b.items[i], b.quantities[i])));
+            out.write('\n');
+        }
+        out.flush();
+        return b.lsn;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        server.close();
+        for (Socket s : replicas) s.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("primary on port %d, epoch %d, lsn %d, %d replica(s) connected",
+                port(), epoch, lastLsn(), replicaCount());
+    }
+}
@@ -0,0 +1,179 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replica side of log-shipping replication (see ReplicationPrimary for the protocol). A
+// background thread keeps a connection to the primary, applies records in LSN order and
+// reconnects after a failure, saying where it stands so it gets only what it missed - or a
+// snapshot when the primary can no longer tell. A gap in the LSNs also forces a reconnect.
+//
+// The position (epoch, last applied LSN) is only ever behind or equal to the applied state,
+// never ahead, and records are absolute, so re-applying some after a restart is harmless.
+public class ReplicationReplica implements Closeable {
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final long RETRY_MILLIS = 1000;
+    // No line (not even a PING) for this long means the primary is gone
+    private static final int READ_TIMEOUT_MILLIS = (int) (ReplicationPrimary.PING_MILLIS * 6);
+
+    // Where the records go
+    public interface Target {
+        void applyRecord(String record);
+
+        void replaceAll(List<Laptop> laptops);
+    }
+
+    private final InetSocketAddress primary;
+    private final Target target;
+    private final Thread worker;
+    private long epoch;
+    private long appliedLsn;
+    private volatile long primaryLsn;
+    private volatile long lastContactMillis;
+    private volatile boolean connected;
+    private volatile boolean closed;
+    private volatile Socket socket;
+    private long snapshotsReceived;
+
+    // epoch and lsn: the position saved with the local copy (0 0 if there is none)
+    public ReplicationReplica(String host, int port, Target target, long epoch, long lsn) {
+        this.primary = new InetSocketAddress(host, port);
+        this.target = target;
+        this.epoch = epoch;
+        this.appliedLsn = lsn;
+        this.primaryLsn = lsn;
+        worker = new Thread(this::run, "replication-replica");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // { epoch, last applied LSN }
+    public synchronized long[] position() {
+        return new long[] {epoch, appliedLsn};
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    // Changes the primary has made that are not applied here yet (as of the last message)
+    public synchronized long lag() {
+        return Math.max(0, primaryLsn - appliedLsn);
+    }
+
+    // --- Connection ---
+    private void run() {
+        boolean reported = false;
+        while (!closed) {
+            try (Socket s = new Socket()) {
+                socket = s;
+                s.connect(primary, CONNECT_TIMEOUT_MILLIS);
+                s.setSoTimeout(READ_TIMEOUT_MILLIS);
+                s.setTcpNoDelay(true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), 1 << 16);
+                Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8);
+                long[] at = position();
+                out.write("HELLO " + at[0] + " " + at[1] + "\n");
+                out.flush();
+                connected = true;
+                if (reported) System.out.println("Reconnected to primary " + primary + ".");
+                reported = false;
+                String line;
+                while (!closed && (line = in.readLine()) != null) {
+                    lastContactMillis = System.currentTimeMillis();
+                    handle(line, in);
+                }
+            } catch (SocketTimeoutException e) {
+                if (!closed && !reported) System.out.println("Primary " + primary + " stopped responding.");
+                reported = true;
+            } catch (IOException | RuntimeException e) {
+                if (!closed && !reported) System.out.println("Replication from " + primary + " interrupted: " + e.getMessage());
+                reported = true;
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            if (closed) return;
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(String line, BufferedReader in) throws IOException {
+        if (line.startsWith("L ")) {
+            int space = line.indexOf(' ', 2);
+            long lsn = Long.parseLong(line.substring(2, space));
+            long expected;
+            synchronized (this) {
+                expected = appliedLsn + 1;
+            }
+            if (lsn < expected) return;   // already applied
+            if (lsn > expected) throw new IOException("gap in the log: expected " + expected + ", got " + lsn);
+            target.applyRecord(line.substring(space + 1));
+            synchronized (this) {
+                appliedLsn = lsn;
+                if (primaryLsn < lsn) primaryLsn = lsn;
+            }
+        } else if (line.startsWith("PING ")) {
+            primaryLsn = Long.parseLong(line.substring(5));
+        } else if (line.startsWith("SNAPSHOT ")) {
+            String[] parts = line.split(" ");
+            long snapshotEpoch = Long.parseLong(parts[1]);
+            long lsn = Long.parseLong(parts[2]);
+            int count = Integer.parseInt(parts[3]);
+            List<Laptop> laptops = new ArrayList<>(count);
+            InventoryJournal.Target collect = new InventoryJournal.Target() {
+                @Override
+                public void replayAdd(Laptop laptop) { laptops.add(laptop); }
+
+                @Override
+                public void replayRemove(String model) { }
+
+                @Override
+                public void replaySetQuantity(String model, int quantity) { }
+            };
+            for (int i = 0; i < count; i++) {
+                String record = in.readLine();
+                if (record == null) throw new IOException("snapshot cut short");
+                if (!InventoryJournal.apply(record, collect)) throw new IOException("bad snapshot record: " + record);
+            }
+            target.replaceAll(laptops);
+            synchronized (this) {
+                epoch = snapshotEpoch;
+                appliedLsn = lsn;
+                primaryLsn = lsn;
+                snapshotsReceived++;
+            }
+        } else {
+            throw new IOException("unexpected message: " + line);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        Socket s = socket;
+        if (s != null) s.close();
+        worker.interrupt();
+    }
+
+    @Override
+    public synchronized String toString() {
+        long since = (lastContactMillis == 0) ? -1 : System.currentTimeMillis() - lastContactMillis;
+        return String.format("replica of %s (%s), epoch %d, applied lsn %d, lag %d change(s), last heard %s, snapshots %d",
+                primary, connected ? "connected" : "disconnected", epoch, appliedLsn, lag(),
+                (since < 0) ? "never" : since + " ms ago", snapshotsReceived);
+    }
+}
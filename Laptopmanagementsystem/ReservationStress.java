@@ -0,0 +1,140 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+// Stress check for LaptopManagementSystem.reserve/release: many threads reserve and release
+// stock on a small set of hot models while others add, reserve on and remove a shared set of
+// churn models, so reserves race with removes of the same laptop. At the end every hot
+// model's quantity must equal initial - reserved + released (no lost updates), no quantity
+// may be below zero, and the running totals (overall and per brand) must match a recount of
+// the laptops left. Exits with status 1 on failure.
+//
+// Usage: java ReservationStress [threads] [operationsPerThread]
+public class ReservationStress {
+    private static final int MODELS = 64;
+    private static final int INITIAL_QTY = 500;
+    private static final int CHURN_MODELS = 16;
+    private static final String[] BRANDS = {"Brand0", "Brand1", "Brand2", "Brand3", "Churn"};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // this checks concurrency, not durability: don't wait for an fsync per change
+        if (System.getProperty("lms.journal.async") == null) System.setProperty("lms.journal.async", "true");
+        int threads = (args.length > 0) ? Integer.parseInt(args[0])
+                : Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+        int opsPerThread = (args.length > 1) ? Integer.parseInt(args[1]) : 50_000;
+
+        Path dataDir = Files.createTempDirectory("lms-reservation-stress");
+        LaptopManagementSystem system = new LaptopManagementSystem(dataDir);
+        for (int i = 0; i < MODELS; i++) {
+            system.addLaptop(new Laptop("Brand" + (i % 4), "Model-" + i, "i7", 16, 512, 50000 + i, INITIAL_QTY));
+        }
+
+        AtomicLongArray reserved = new AtomicLongArray(MODELS);
+        AtomicLongArray released = new AtomicLongArray(MODELS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread w = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long[] held = new long[MODELS];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int op = 0; op < opsPerThread; op++) {
+                    int m = rnd.nextInt(MODELS);
+                    String model = "Model-" + m;
+                    int roll = rnd.nextInt(100);
+                    if (roll < 55) {
+                        int units = 1 + rnd.nextInt(5);
+                        if (system.reserve(model, units)) {
+                            reserved.addAndGet(m, units);
+                            held[m] += units;
+                        }
+                    } else if (roll < 85) {
+                        if (held[m] > 0) {
+                            int units = (int) Math.min(held[m], 1 + rnd.nextInt(5));
+                            system.release(model, units);
+                            released.addAndGet(m, units);
+                            held[m] -= units;
+                        }
+                    } else {
+                        // churn models are shared by all threads, so reserves, releases and
+                        // removes of one laptop race each other
+                        String tmp = "Tmp-" + rnd.nextInt(CHURN_MODELS);
+                        int kind = rnd.nextInt(4);
+                        if (kind == 0) system.addLaptop(new Laptop("Churn", tmp, "i5", 8, 256, 30000, 20));
+                        else if (kind == 1) system.removeLaptop(tmp);
+                        else if (kind == 2) system.reserve(tmp, 1 + rnd.nextInt(5));
+                        else system.release(tmp, 1 + rnd.nextInt(5));
+                    }
+                }
+            }, "stress-" + t);
+            workers.add(w);
+            w.start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        int lost = 0;
+        for (int m = 0; m < MODELS; m++) {
+            long expected = INITIAL_QTY - reserved.get(m) + released.get(m);
+            int actual = system.findByModel("Model-" + m).getQuantity();
+            if (actual != expected) {
+                lost++;
+                System.out.println("Model-" + m + ": expected " + expected + " but found " + actual);
+            }
+        }
+
+        // running totals against a recount of what is left
+        List<Laptop> left = system.getLaptops();
+        boolean negative = false;
+        for (Laptop l : left) if (l.getQuantity() < 0) negative = true;
+        int drifted = 0;
+        drifted += compare("overall", system.getTotals(), left, null);
+        for (String brand : BRANDS) drifted += compare(brand, system.getBrandTotals(brand), left, brand);
+
+        System.out.printf("%d threads x %d ops in %.2fs (%.0f ops/s)%n",
+                threads, opsPerThread, seconds, threads * (double) opsPerThread / seconds);
+        System.out.println("Models with lost updates: " + lost + ", quantity below zero: " + negative
+                + ", totals that drifted: " + drifted + ", churn models left: " + (left.size() - MODELS));
+        system.close();
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+        boolean ok = lost == 0 && !negative && drifted == 0;
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    // 1 (after printing both sides) if the running totals differ from a recount
+    private static int compare(String name, InventoryStats.Totals running, List<Laptop> laptops, String brand) {
+        int count = 0;
+        long units = 0, stockValueCents = 0;
+        for (Laptop l : laptops) {
+            if (brand != null && !l.getBrand().equalsIgnoreCase(brand)) continue;
+            count++;
+            units += l.getQuantity();
+            stockValueCents += InventoryStats.toCents(l.getPrice()) * l.getQuantity();
+        }
+        if (running.getCount() == count && running.getUnits() == units
+                && InventoryStats.toCents(running.getStockValue()) == stockValueCents) {
+            return 0;
+        }
+        System.out.println(name + ": running {" + running + "} vs recounted {count=" + count + ", stockValue="
+                + stockValueCents / 100.0 + ", units=" + units + "}");
+        return 1;
+    }
+}
@@ -0,0 +1,358 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Nearest-neighbour search over laptop specs with a KD-tree. Every laptop is a point in four
+// dimensions - RAM, storage, price and processor score - each mapped to roughly [0, 1]
+// with a fixed scale (log scale for the sizes and price, so 8 -> 16 GB counts as much as
+// 16 -> 32 GB). Fixed scales mean adding a laptop never changes anyone else's coordinates.
+//
+// Updates are incremental with the logarithmic method: additions collect in a pending list;
+// once a query finds more than a few dozen there, they become a KD-tree, merged with every
+// tree not larger than it, so there are O(log n) trees and each laptop is rebuilt O(log n)
+// times overall. Removals (from a tree or the pending list) are tombstoned, and a query
+// compacts everything into a single tree once a quarter of the indexed laptops are dead.
+// Maintenance only runs on queries, so a bulk load costs one build at the first query
+// instead of work on every insert.
+//
+// Changes must come from one thread with no query running (LaptopManagementSystem holds its
+// write lock). Queries may run side by side under its read lock; they take turns on the index,
+// since any of them may do the maintenance. Only laptops in stock are recommended.
+public class SimilarityIndex implements InventoryListener {
+    static final int DIMS = 4;
+    static final int RAM = 0, STORAGE = 1, PRICE = 2, SCORE = 3;
+    private static final float[] ALL_DIMS = {1, 1, 1, 1};
+    private static final float[] SPEC_ONLY = {1, 1, 0, 1};
+
+    private static final int PENDING_LIMIT = 64;
+    private static final int PARALLEL_BUILD = 1 << 15;
+
+    private final List<Tree> trees = new ArrayList<>();     // largest first
+    private final List<Laptop> pending = new ArrayList<>();
+    private final Set<Laptop> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int indexed;
+
+    // --- Normalization ---
+    static float ramCoord(int gb) { return (float) (log2(1 + gb) / 7); }           // 128 GB -> ~1
+    static float storageCoord(int gb) { return (float) (log2(1 + gb) / 12); }      // 4 TB -> ~1
+    static float priceCoord(double price) { return (float) (log2(1 + price) / 20); } // Rs. 10 lakh -> ~1
+    static float scoreCoord(int score) { return score / 200f; }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    private static void point(Laptop l, float[] out, int at) {
+        out[at + RAM] = ramCoord(l.getRam());
+        out[at + STORAGE] = storageCoord(l.getStorage());
+        out[at + PRICE] = priceCoord(l.getPrice());
+        out[at + SCORE] = scoreCoord(ProcessorCatalog.score(l.getProcessor()));
+    }
+
+    // --- InventoryListener ---
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        if (!removed.remove(laptop)) pending.add(laptop);
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        removed.add(laptop);
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        // stock is not a coordinate: Search.offer skips laptops with none at query time
+    }
+
+    public int size() {
+        return indexed + pending.size() - removed.size();
+    }
+
+    public void clear() {
+        trees.clear();
+        indexed = 0;
+        pending.clear();
+        removed.clear();
+    }
+
+    // --- Queries ---
+    // The k laptops closest to the given one on all four dimensions (the laptop itself excluded)
+    public List<Laptop> similarTo(Laptop laptop, int k) {
+        float[] target = new float[DIMS];
+        point(laptop, target, 0);
+        return nearest(target, ALL_DIMS, k, Double.MAX_VALUE, laptop);
+    }
+
+    // The k laptops priced at most maxPrice that come closest to the RAM, storage and
+    // processor score asked for; price only filters, it does not pull results towards it
+    public List<Laptop> closestUnderBudget(int ram, int storage, int processorScore, double maxPrice, int k) {
+        float[] target = {ramCoord(ram), storageCoord(storage), 0, scoreCoord(processorScore)};
+        return nearest(target, SPEC_ONLY, k, maxPrice, null);
+    }
+
+    private synchronized List<Laptop> nearest(float[] target, float[] weights, int k, double maxPrice, Laptop exclude) {
+        if (k <= 0) return new ArrayList<>();
+        if (removed.size() > (indexed + pending.size()) / 4) compact();
+        else if (pending.size() > PENDING_LIMIT) flushPending();
+        Search s = new Search(target, weights, k, maxPrice, exclude);
+        for (Tree t : trees) s.descend(t, 0, t.items.length);
+        float[] p = new float[DIMS];
+        for (Laptop l : pending) {
+            point(l, p, 0);
+            s.offer(l, p, 0);
+        }
+        return s.results();
+    }
+
+    private final class Search {
+        final float[] target;
+        final float[] weights;
+        final double maxPrice;
+        final float maxPriceCoord;
+        final Laptop exclude;
+        // bounded max-heap on distance: the worst of the best k is at the root
+        final Laptop[] heap;
+        final double[] dist;
+        int count;
+
+        Search(float[] target, float[] weights, int k, double maxPrice, Laptop exclude) {
+            this.target = target;
+            this.weights = weights;
+            this.maxPrice = maxPrice;
+            this.maxPriceCoord = (maxPrice == Double.MAX_VALUE) ? Float.MAX_VALUE : priceCoord(maxPrice);
+            this.exclude = exclude;
+            this.heap = new Laptop[k];
+            this.dist = new double[k];
+        }
+
+        double worst() {
+            return (count < heap.length) ? Double.MAX_VALUE : dist[0];
+        }
+
+        void descend(Tree t, int lo, int hi) {
+            if (lo >= hi) return;
+            int mid = (lo + hi) >>> 1;
+            int d = t.splitDim[mid];
+            float split = t.coords[mid * DIMS + d];
+            double diff = target[d] - split;
+            if (d == PRICE && split > maxPriceCoord) {
+                descend(t, lo, mid);              // everything from mid on costs more than the budget
+                return;
+            }
+            offer(t.items[mid], t.coords, mid * DIMS);
+            boolean leftFirst = diff < 0;
+            descend(t, leftFirst ? lo : mid + 1, leftFirst ? mid : hi);
+            if (weights[d] * diff * diff < worst()) descend(t, leftFirst ? mid + 1 : lo, leftFirst ? hi : mid);
+        }
+
+        void offer(Laptop l, float[] p, int at) {
+            if (l == exclude || l.getQuantity() <= 0 || l.getPrice() > maxPrice || removed.contains(l)) return;
+            double sum = 0;
+            for (int d = 0; d < DIMS; d++) {
+                double diff = target[d] - p[at + d];
+                sum += weights[d] * diff * diff;
+            }
+            if (sum >= worst()) return;
+            if (count < heap.length) {
+                heap[count] = l;
+                dist[count] = sum;
+                siftUp(count++);
+            } else {
+                heap[0] = l;
+                dist[0] = sum;
+                siftDown(0);
+            }
+        }
+
+        void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (dist[parent] >= dist[i]) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < count && dist[left] > dist[largest]) largest = left;
+                if (right < count && dist[right] > dist[largest]) largest = right;
+                if (largest == i) return;
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        void swap(int a, int b) {
+            Laptop l = heap[a];
+            heap[a] = heap[b];
+            heap[b] = l;
+            double t = dist[a];
+            dist[a] = dist[b];
+            dist[b] = t;
+        }
+
+        // Closest first
+        List<Laptop> results() {
+            List<Laptop> out = new ArrayList<>(count);
+            for (int n = count; n > 0; n--) {
+                out.add(heap[0]);
+                count--;
+                swap(0, count);
+                siftDown(0);
+            }
+            Collections.reverse(out);
+            return out;
+        }
+    }
+
+    // --- Maintenance ---
+    // Turns the pending set into a tree, merging it with every existing tree that is not
+    // larger than the result (like carrying in a binary counter)
+    private void flushPending() {
+        List<Laptop> batch = new ArrayList<>(pending.size());
+        for (Laptop l : pending) if (!removed.remove(l)) batch.add(l);
+        pending.clear();
+        while (!trees.isEmpty() && trees.get(trees.size() - 1).items.length <= batch.size()) {
+            Tree smaller = trees.remove(trees.size() - 1);
+            indexed -= smaller.items.length;
+            for (Laptop l : smaller.items) if (!removed.remove(l)) batch.add(l);
+        }
+        trees.add(new Tree(batch));
+        indexed += batch.size();
+    }
+
+    // Rebuilds everything (trees and pending) as one tree without the tombstoned laptops
+    private void compact() {
+        List<Laptop> live = new ArrayList<>(size());
+        for (Tree t : trees) for (Laptop l : t.items) if (!removed.contains(l)) live.add(l);
+        for (Laptop l : pending) if (!removed.contains(l)) live.add(l);
+        trees.clear();
+        pending.clear();
+        removed.clear();
+        indexed = live.size();
+        if (!live.isEmpty()) trees.add(new Tree(live));
+    }
+
+    // A static KD-tree laid out in place: the median of [lo, hi) sits at mid = (lo + hi) >>> 1
+    // and splits on splitDim[mid]; the left half is <= it on that dimension, the right half >=
+    private static final class Tree {
+        final Laptop[] items;
+        final float[] coords;
+        final byte[] splitDim;
+
+        Tree(List<Laptop> laptops) {
+            int n = laptops.size();
+            items = laptops.toArray(new Laptop[0]);
+            coords = new float[n * DIMS];
+            for (int i = 0; i < n; i++) point(items[i], coords, i * DIMS);
+            splitDim = new byte[n];
+            ForkJoinPool.commonPool().invoke(new Build(0, n));
+        }
+
+        // Builds the two halves of a large range in parallel; they touch disjoint slices
+        private final class Build extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+            private final int lo, hi;
+
+            Build(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo < PARALLEL_BUILD) {
+                    build(lo, hi);
+                    return;
+                }
+                int mid = split(lo, hi);
+                invokeAll(new Build(lo, mid), new Build(mid + 1, hi));
+            }
+        }
+
+        // Places the median of [lo, hi) and records its split dimension; returns its index
+        private int split(int lo, int hi) {
+            int d = widestDim(lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid, d);
+            splitDim[mid] = (byte) d;
+            return mid;
+        }
+
+        private void build(int lo, int hi) {
+            while (hi - lo > 1) {
+                int mid = split(lo, hi);
+                // recurse into the smaller half, loop on the larger one
+                if (mid - lo < hi - mid - 1) {
+                    build(lo, mid);
+                    lo = mid + 1;
+                } else {
+                    build(mid + 1, hi);
+                    hi = mid;
+                }
+            }
+        }
+
+        // Dimension with the largest spread, estimated from at most ~256 evenly spaced points
+        private int widestDim(int lo, int hi) {
+            int step = Math.max(1, (hi - lo) >>> 8);
+            int best = 0;
+            float bestSpread = -1;
+            for (int d = 0; d < DIMS; d++) {
+                float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+                for (int i = lo; i < hi; i += step) {
+                    float v = coords[i * DIMS + d];
+                    if (v < min) min = v;
+                    if (v > max) max = v;
+                }
+                if (max - min > bestSpread) {
+                    bestSpread = max - min;
+                    best = d;
+                }
+            }
+            return best;
+        }
+
+        // Quickselect: puts the k-th smallest (on dimension d) of [left, right] at k, with nothing
+        // larger before it and nothing smaller after it. Three-way partitioning keeps it linear
+        // when a dimension has only a handful of distinct values (RAM, storage).
+        private void select(int left, int right, int k, int d) {
+            while (right > left) {
+                float pivot = coords[((left + right) >>> 1) * DIMS + d];
+                int lt = left, i = left, gt = right;
+                while (i <= gt) {
+                    float v = coords[i * DIMS + d];
+                    if (v < pivot) swap(lt++, i++);
+                    else if (v > pivot) swap(i, gt--);
+                    else i++;
+                }
+                // [left, lt) < pivot, [lt, gt] == pivot, (gt, right] > pivot
+                if (k < lt) right = lt - 1;
+                else if (k > gt) left = gt + 1;
+                else return;
+            }
+        }
+
+        private void swap(int a, int b) {
+            if (a == b) return;
+            Laptop l = items[a];
+            items[a] = items[b];
+            items[b] = l;
+            for (int d = 0; d < DIMS; d++) {
+                float t = coords[a * DIMS + d];
+                coords[a * DIMS + d] = coords[b * DIMS + d];
+                coords[b * DIMS + d] = t;
+            }
+        }
+    }
+}
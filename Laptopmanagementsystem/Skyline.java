@@ -0,0 +1,148 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Pareto frontier ("skyline") of the inventory: the laptops that no other laptop beats on
+// price, RAM, storage and processor score all at once. One laptop dominates another when it
+// is at least as good on all four (cheaper or equal, at least as much RAM, storage and
+// score) and strictly better on one; identical specs do not dominate each other.
+//
+// Each partition is solved with sort-filter-skyline: sort by a score that dominance always
+// improves, then keep a candidate unless something already kept dominates it (nothing kept
+// can be dominated by a later candidate). Large inputs are split and solved with fork-join;
+// the union of the partial skylines is filtered once more. The overall skyline is always a
+// subset of the per-brand skylines, so it is computed from them.
+public final class Skyline {
+    private static final int SEQUENTIAL_BELOW = 8192;
+
+    // Attributes pulled out once so dominance tests do not go through getters
+    private static final class Point {
+        final Laptop laptop;
+        final long price;
+        final int ram;
+        final int storage;
+        final int score;
+        final double order;
+
+        Point(Laptop l) {
+            laptop = l;
+            price = InventoryStats.toCents(l.getPrice());
+            ram = l.getRam();
+            storage = l.getStorage();
+            score = ProcessorCatalog.score(l.getProcessor());
+            // a dominating point never has a larger order (ties are broken in compareOrder)
+            order = SimilarityIndex.priceCoord(l.getPrice()) - SimilarityIndex.ramCoord(ram)
+                    - SimilarityIndex.storageCoord(storage) - SimilarityIndex.scoreCoord(score);
+        }
+
+        boolean dominates(Point o) {
+            return price <= o.price && ram >= o.ram && storage >= o.storage && score >= o.score
+                    && (price < o.price || ram > o.ram || storage > o.storage || score > o.score);
+        }
+    }
+
+    public static final class Result {
+        public final List<Laptop> overall;
+        public final Map<String, List<Laptop>> byBrand;   // brand as first seen -> its frontier
+
+        Result(List<Laptop> overall, Map<String, List<Laptop>> byBrand) {
+            this.overall = overall;
+            this.byBrand = byBrand;
+        }
+    }
+
+    private Skyline() {
+    }
+
+    public static Result compute(Collection<Laptop> laptops) {
+        Map<String, List<Point>> groups = new LinkedHashMap<>();
+        Map<String, String> names = new LinkedHashMap<>();
+        for (Laptop l : laptops) {
+            String key = LaptopIndex.key(l.getBrand());
+            names.putIfAbsent(key, l.getBrand());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(new Point(l));
+        }
+        Map<String, List<Laptop>> byBrand = new LinkedHashMap<>();
+        List<Point> candidates = new ArrayList<>();
+        for (Map.Entry<String, List<Point>> g : groups.entrySet()) {
+            Point[] frontier = solve(g.getValue().toArray(new Point[0]));
+            byBrand.put(names.get(g.getKey()), toLaptops(frontier));
+            candidates.addAll(Arrays.asList(frontier));
+        }
+        return new Result(toLaptops(sfs(candidates.toArray(new Point[0]))), byBrand);
+    }
+
+    private static List<Laptop> toLaptops(Point[] pts) {
+        List<Laptop> out = new ArrayList<>(pts.length);
+        for (Point p : pts) out.add(p.laptop);
+        return out;
+    }
+
+    private static Point[] solve(Point[] pts) {
+        if (pts.length < SEQUENTIAL_BELOW) return sfs(pts);
+        return ForkJoinPool.commonPool().invoke(new Split(pts, 0, pts.length));
+    }
+
+    // Divide and conquer: skyline(A + B) = sfs(skyline(A) + skyline(B))
+    private static final class Split extends RecursiveTask<Point[]> {
+        private static final long serialVersionUID = 1L;
+        private final Point[] pts;
+        private final int lo, hi;
+
+        Split(Point[] pts, int lo, int hi) {
+            this.pts = pts;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Point[] compute() {
+            if (hi - lo < SEQUENTIAL_BELOW) return sfs(Arrays.copyOfRange(pts, lo, hi));
+            int mid = (lo + hi) >>> 1;
+            Split left = new Split(pts, lo, mid);
+            left.fork();
+            Point[] right = new Split(pts, mid, hi).compute();
+            Point[] l = left.join();
+            Point[] merged = Arrays.copyOf(l, l.length + right.length);
+            System.arraycopy(right, 0, merged, l.length, right.length);
+            return sfs(merged);
+        }
+    }
+
+    // By order, with ties (float rounding, identical specs) broken attribute by attribute so a
+    // dominating point still sorts first
+    private static int compareOrder(Point a, Point b) {
+        int c = Double.compare(a.order, b.order);
+        if (c != 0) return c;
+        if (a.price != b.price) return Long.compare(a.price, b.price);
+        if (a.ram != b.ram) return Integer.compare(b.ram, a.ram);
+        if (a.storage != b.storage) return Integer.compare(b.storage, a.storage);
+        return Integer.compare(b.score, a.score);
+    }
+
+    // Sort-filter-skyline; sorts pts in place and returns the frontier in that order
+    private static Point[] sfs(Point[] pts) {
+        Arrays.sort(pts, Skyline::compareOrder);
+        Point[] window = new Point[Math.min(pts.length, 64)];
+        int size = 0;
+        for (Point p : pts) {
+            boolean dominated = false;
+            for (int i = 0; i < size; i++) {
+                if (window[i].dominates(p)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (dominated) continue;
+            if (size == window.length) window = Arrays.copyOf(window, size * 2);
+            window[size++] = p;
+        }
+        return Arrays.copyOf(window, size);
+    }
+}
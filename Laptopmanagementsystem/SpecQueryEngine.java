@@ -0,0 +1,196 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Answers conjunctive spec filters ("RAM >= 16, storage >= 512, price <= 80000, i7 or
+// Ryzen 7, in stock") with bitmap indexes. Every laptop gets a slot number; each
+// attribute is split into buckets and every bucket keeps a BitSet of the slots in it.
+// A query ORs the buckets each condition could match, ANDs the conditions together, and
+// only re-checks the survivors when a bound falls inside a bucket instead of on its edge.
+public class SpecQueryEngine implements InventoryListener {
+
+    public enum Family {
+        I3, I5, I7, I9, RYZEN_3, RYZEN_5, RYZEN_7, RYZEN_9, OTHER;
+
+        public static Family of(String processor) {
+            return ProcessorCatalog.get(processor).family;
+        }
+
+        // Parses user input such as "i7" or "Ryzen 7"; null if not recognised
+        public static Family parse(String text) {
+            String t = text.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+            for (Family f : values()) if (f.name().equals(t)) return f;
+            return null;
+        }
+    }
+
+    // A filter; unset bounds match everything
+    public static class SpecQuery {
+        int minRam = -1;
+        int minStorage = -1;
+        double minPrice = -1;
+        double maxPrice = -1;
+        Set<Family> families = EnumSet.noneOf(Family.class);
+        boolean inStockOnly;
+
+        public SpecQuery minRam(int gb) { minRam = gb; return this; }
+        public SpecQuery minStorage(int gb) { minStorage = gb; return this; }
+        public SpecQuery minPrice(double price) { minPrice = price; return this; }
+        public SpecQuery maxPrice(double price) { maxPrice = price; return this; }
+        public SpecQuery family(Family f) { families.add(f); return this; }
+        public SpecQuery inStockOnly() { inStockOnly = true; return this; }
+
+        boolean matches(Laptop l) {
+            return matchesSpecs(l) && (!inStockOnly || l.getQuantity() > 0);
+        }
+
+        // Everything but the stock condition
+        boolean matchesSpecs(Laptop l) {
+            return (minRam < 0 || l.getRam() >= minRam)
+                    && (minStorage < 0 || l.getStorage() >= minStorage)
+                    && (minPrice < 0 || l.getPrice() >= minPrice)
+                    && (maxPrice < 0 || l.getPrice() <= maxPrice)
+                    && (families.isEmpty() || families.contains(Family.of(l.getProcessor())));
+        }
+
+        // Identifies the filter (equal filters give equal keys)
+        String key() {
+            return minRam + "|" + minStorage + "|" + minPrice + "|" + maxPrice + "|" + families + "|" + inStockOnly;
+        }
+    }
+
+    // Bucket lower bounds; the last bucket is open-ended
+    private static final int[] RAM_TIERS = {0, 4, 8, 12, 16, 24, 32, 64};
+    private static final int[] STORAGE_TIERS = {0, 128, 256, 512, 1024, 2048};
+    private static final long[] PRICE_BANDS = {0, 3_000_000, 5_000_000, 7_000_000, 9_000_000,
+            12_000_000, 16_000_000, 25_000_000}; // paise
+
+    private final List<Laptop> slots = new ArrayList<>();
+    private final Map<Laptop, Integer> slotOf = new IdentityHashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final BitSet[] ram = bitsets(RAM_TIERS.length);
+    private final BitSet[] storage = bitsets(STORAGE_TIERS.length);
+    private final BitSet[] price = bitsets(PRICE_BANDS.length);
+    private final BitSet[] family = bitsets(Family.values().length);
+
+    private static BitSet[] bitsets(int n) {
+        BitSet[] b = new BitSet[n];
+        for (int i = 0; i < n; i++) b[i] = new BitSet();
+        return b;
+    }
+
+    private static int bucket(long value, long[] bounds) {
+        int i = bounds.length - 1;
+        while (i > 0 && value < bounds[i]) i--;
+        return i;
+    }
+
+    private static int bucket(int value, int[] bounds) {
+        int i = bounds.length - 1;
+        while (i > 0 && value < bounds[i]) i--;
+        return i;
+    }
+
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = slots.size();
+            slots.add(laptop);
+        } else {
+            slot = freeSlots.pop();
+            slots.set(slot, laptop);
+        }
+        slotOf.put(laptop, slot);
+        live.set(slot);
+        ram[bucket(laptop.getRam(), RAM_TIERS)].set(slot);
+        storage[bucket(laptop.getStorage(), STORAGE_TIERS)].set(slot);
+        price[bucket(InventoryStats.toCents(laptop.getPrice()), PRICE_BANDS)].set(slot);
+        family[Family.of(laptop.getProcessor()).ordinal()].set(slot);
+        inStock.set(slot, laptop.getQuantity() > 0);
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        Integer slot = slotOf.remove(laptop);
+        if (slot == null) return;
+        live.clear(slot);
+        ram[bucket(laptop.getRam(), RAM_TIERS)].clear(slot);
+        storage[bucket(laptop.getStorage(), STORAGE_TIERS)].clear(slot);
+        price[bucket(InventoryStats.toCents(laptop.getPrice()), PRICE_BANDS)].clear(slot);
+        family[Family.of(laptop.getProcessor()).ordinal()].clear(slot);
+        inStock.clear(slot);
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        Integer slot = slotOf.get(laptop);
+        if (slot != null) inStock.set(slot, laptop.getQuantity() > 0);
+    }
+
+    public void clear() {
+        slots.clear();
+        slotOf.clear();
+        freeSlots.clear();
+        live.clear();
+        inStock.clear();
+        for (BitSet[] dim : List.of(ram, storage, price, family)) {
+            for (BitSet b : dim) b.clear();
+        }
+    }
+
+    public List<Laptop> query(SpecQuery q) {
+        BitSet result = (BitSet) live.clone();
+        boolean exact = true;
+
+        if (q.minRam >= 0) exact &= andAtLeast(result, ram, RAM_TIERS, q.minRam);
+        if (q.minStorage >= 0) exact &= andAtLeast(result, storage, STORAGE_TIERS, q.minStorage);
+        if (q.minPrice >= 0 || q.maxPrice >= 0) {
+            long lo = (q.minPrice < 0) ? 0 : InventoryStats.toCents(q.minPrice);
+            long hi = (q.maxPrice < 0) ? Long.MAX_VALUE : InventoryStats.toCents(q.maxPrice);
+            BitSet band = new BitSet();
+            for (int i = 0; i < PRICE_BANDS.length; i++) {
+                long from = PRICE_BANDS[i];
+                long to = (i + 1 < PRICE_BANDS.length) ? PRICE_BANDS[i + 1] - 1 : Long.MAX_VALUE;
+                if (to < lo || from > hi) continue;
+                band.or(price[i]);
+                if (from < lo || to > hi) exact = false;
+            }
+            result.and(band);
+        }
+        if (!q.families.isEmpty()) {
+            BitSet any = new BitSet();
+            for (Family f : q.families) any.or(family[f.ordinal()]);
+            result.and(any);
+        }
+        if (q.inStockOnly) result.and(inStock);
+
+        List<Laptop> matches = new ArrayList<>(result.cardinality());
+        for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+            Laptop l = slots.get(slot);
+            if (exact || q.matches(l)) matches.add(l);
+        }
+        return matches;
+    }
+
+    // ANDs in the buckets that can hold values >= min; exact when min is a bucket edge
+    private static boolean andAtLeast(BitSet result, BitSet[] buckets, int[] bounds, int min) {
+        int first = bucket(min, bounds);
+        BitSet any = new BitSet();
+        for (int i = first; i < buckets.length; i++) any.or(buckets[i]);
+        result.and(any);
+        return min == bounds[first];
+    }
+}
@@ -0,0 +1,56 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dictionary encoding for strings that repeat across the inventory (brands, processors).
+// Each distinct value gets a small int code and one canonical String instance; Laptop stores
+// the canonical instance, so thousands of "Lenovo" rows share a single String.
+// Lookups are lock-free; only the first sighting of a new value takes the lock.
+// Entries are never removed - brand and processor vocabularies are small and stable.
+public final class StringDictionary {
+    public static final StringDictionary BRANDS = new StringDictionary();
+    public static final StringDictionary PROCESSORS = new StringDictionary();
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    public int code(String s) {
+        Integer code = codes.get(s);
+        if (code != null) return code;
+        synchronized (this) {
+            code = codes.get(s);
+            if (code != null) return code;
+            String[] v = values;
+            if (size == v.length) v = Arrays.copyOf(v, size * 2);
+            v[size] = s;
+            values = v;
+            code = size++;
+            codes.put(s, code);
+            return code;
+        }
+    }
+
+    public String value(int code) {
+        return values[code];
+    }
+
+    // Returns the canonical instance equal to s (s itself the first time it is seen)
+    public String intern(String s) {
+        return (s == null) ? null : value(code(s));
+    }
+
+    // Marks every code whose value matches s case-insensitively (as LaptopIndex.key does);
+    // unlike code(s), an unknown s is not added
+    public boolean[] matching(String s) {
+        String key = LaptopIndex.key(s);
+        String[] v = values;
+        boolean[] match = new boolean[v.length];
+        for (int i = 0; i < v.length; i++) match[i] = v[i] != null && LaptopIndex.key(v[i]).equals(key);
+        return match;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,370 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Typo-tolerant search over model, brand and processor using trigrams (3-character windows of
+// the lower-cased text, padded with spaces so word starts count too). "thinkpd x1" shares most
+// of its trigrams with "ThinkPad X1 Carbon", so it is found even though no substring matches.
+//
+// Model names get an inverted index (trigram -> laptop ids). Brands and processors repeat, so
+// they are indexed once per distinct value, each with the ids of its laptops. A laptop's
+// trigrams are the union of its three fields.
+//
+// A search walks the lists of the query's trigrams once, counting per laptop how many of them
+// it holds, so no laptop text is re-read. A laptop is kept if it holds at least half of them
+// or if the query starts a word in one of its fields (prefix match). Ranking: prefix matches
+// first, then by the share of the query found (70%) and how closely the model name alone
+// matches (30%). Holding every trigram of " " + query only makes a prefix match possible; the
+// text is checked only for laptops that would otherwise make the top results.
+//
+// Ids only grow; removed laptops leave holes that are dropped by re-indexing once they
+// outnumber the live ones. Searches are serialized (they share scratch arrays).
+public class TrigramIndex implements InventoryListener {
+    private static final int SYMBOLS = 38;   // space, a-z, 0-9, any other letter or digit
+    private static final int GRAMS = SYMBOLS * SYMBOLS * SYMBOLS;
+    private static final double MIN_CONTAINMENT = 0.5;
+    private static final int MAX_QUERY = 120;   // keeps per-laptop counts within a byte
+    private static final int VERIFY_ROUNDS = 3;
+
+    // Growable int list
+    private static final class Ids {
+        int[] a = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == a.length) a = Arrays.copyOf(a, size * 2);
+            a[size++] = id;
+        }
+    }
+
+    // A distinct brand or processor value and the laptops that have it
+    private static final class Group {
+        final String text;       // normalized
+        final int[] grams;       // distinct trigrams of text, sorted
+        final Ids ids = new Ids();
+        int live;
+
+        Group(String value) {
+            text = normalize(value);
+            grams = distinctGrams(text);
+        }
+    }
+
+    private final Ids[] modelPostings = new Ids[GRAMS];
+    private final Map<String, Group> brands = new HashMap<>();
+    private final Map<String, Group> processors = new HashMap<>();
+    private final Map<Laptop, Integer> idOf = new IdentityHashMap<>();
+    private Laptop[] byId = new Laptop[1024];
+    private byte[] modelGramCount = new byte[1024];
+    private int nextId;
+
+    // Scratch for searches, indexed by id; stamps avoid clearing them per query
+    private int[] seen = new int[1024];        // query stamp: counts[id] is valid
+    private int[] counts = new int[1024];      // found | inModel << 8 | wordStart << 16
+    private int[] lastGram = new int[1024];    // trigram stamp: already counted for this trigram
+    private int stamp;
+
+    // --- Text ---
+    static String normalize(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = true;
+        for (int i = 0; i < s.length(); i++) {
+            char c = Character.toLowerCase(s.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int n = sb.length();
+        if (n > 0 && sb.charAt(n - 1) == ' ') sb.setLength(n - 1);
+        return sb.toString();
+    }
+
+    private static int symbol(char c) {
+        if (c == ' ') return 0;
+        if (c >= 'a' && c <= 'z') return 1 + (c - 'a');
+        if (c >= '0' && c <= '9') return 27 + (c - '0');
+        return 37;
+    }
+
+    private static int gram(char a, char b, char c) {
+        return (symbol(a) * SYMBOLS + symbol(b)) * SYMBOLS + symbol(c);
+    }
+
+    // Trigrams of " " + text + " " (with repeats); text must be normalized
+    private static int[] grams(String text) {
+        if (text.isEmpty()) return new int[0];
+        String padded = " " + text + " ";
+        int[] out = new int[padded.length() - 2];
+        for (int i = 0; i < out.length; i++) out[i] = gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+        return out;
+    }
+
+    private static int[] distinctGrams(String text) {
+        int[] g = grams(text);
+        Arrays.sort(g);
+        int n = 0;
+        for (int i = 0; i < g.length; i++) {
+            if (i == 0 || g[i] != g[i - 1]) g[n++] = g[i];
+        }
+        return (n == g.length) ? g : Arrays.copyOf(g, n);
+    }
+
+    // --- Maintenance ---
+    @Override
+    public synchronized void laptopAdded(Laptop laptop) {
+        if (idOf.containsKey(laptop)) return;
+        int id = nextId++;
+        if (id == byId.length) {
+            byId = Arrays.copyOf(byId, id * 2);
+            modelGramCount = Arrays.copyOf(modelGramCount, id * 2);
+        }
+        byId[id] = laptop;
+        idOf.put(laptop, id);
+        int[] grams = distinctGrams(normalize(laptop.getModel()));
+        modelGramCount[id] = (byte) Math.min(grams.length, 255);
+        for (int g : grams) {
+            Ids list = modelPostings[g];
+            if (list == null) modelPostings[g] = list = new Ids();
+            list.add(id);
+        }
+        addToGroup(brands, laptop.getBrand(), id);
+        addToGroup(processors, laptop.getProcessor(), id);
+    }
+
+    private static void addToGroup(Map<String, Group> groups, String value, int id) {
+        Group g = groups.computeIfAbsent(value == null ? "" : value, Group::new);
+        g.ids.add(id);
+        g.live++;
+    }
+
+    @Override
+    public synchronized void laptopRemoved(Laptop laptop) {
+        Integer id = idOf.remove(laptop);
+        if (id == null) return;
+        byId[id] = null;
+        brands.get(laptop.getBrand() == null ? "" : laptop.getBrand()).live--;
+        processors.get(laptop.getProcessor() == null ? "" : laptop.getProcessor()).live--;
+        int dead = nextId - idOf.size();
+        if (dead > idOf.size() && dead > 1024) reindex();
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        // stock is not searchable text
+    }
+
+    private void reindex() {
+        Laptop[] live = new Laptop[idOf.size()];
+        int n = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (byId[id] != null) live[n++] = byId[id];
+        }
+        clear();
+        for (Laptop l : live) laptopAdded(l);
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(modelPostings, null);
+        brands.clear();
+        processors.clear();
+        idOf.clear();
+        byId = new Laptop[1024];
+        modelGramCount = new byte[1024];
+        nextId = 0;
+    }
+
+    public synchronized int size() {
+        return idOf.size();
+    }
+
+    // --- Search ---
+    // Best matches first; queries shorter than two letters or digits find nothing
+    public List<Laptop> search(String query, int limit) {
+        return search(query, limit, false);
+    }
+
+    // Laptops where the query starts a word of the model, brand or processor
+    public List<Laptop> prefixSearch(String prefix, int limit) {
+        return search(prefix, limit, true);
+    }
+
+    // Laptops that matched, with what is known about each
+    private static final class Candidates {
+        final int[] ids;
+        final double[] score;        // without the prefix bonus
+        final boolean[] maybePrefix; // holds every word-start trigram, text not checked yet
+        final boolean[] fuzzy;       // holds enough trigrams to match without being a prefix
+        final boolean[] prefix;      // text checked: a prefix match
+        int size;
+
+        Candidates(int capacity) {
+            ids = new int[capacity];
+            score = new double[capacity];
+            maybePrefix = new boolean[capacity];
+            fuzzy = new boolean[capacity];
+            prefix = new boolean[capacity];
+        }
+
+        double rank(int i) {
+            return score[i] + (prefix[i] || maybePrefix[i] ? 1 : 0);
+        }
+    }
+
+    private synchronized List<Laptop> search(String query, int limit, boolean prefixOnly) {
+        String q = normalize(query);
+        if (q.length() > MAX_QUERY) q = q.substring(0, MAX_QUERY).trim();
+        if (q.length() < 2 || limit <= 0) return new ArrayList<>();
+        int[] qGrams = distinctGrams(q);
+        // trigrams of " " + q, which every word starting with q contains
+        String padded = " " + q;
+        int[] starts = new int[padded.length() - 2];
+        for (int i = 0; i < starts.length; i++) starts[i] = gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+        int[] wordStart = Arrays.stream(starts).sorted().distinct().toArray();
+
+        Ids touched = count(qGrams, wordStart);
+        Candidates c = new Candidates(touched.size);
+        for (int i = 0; i < touched.size; i++) {
+            int id = touched.a[i];
+            int packed = counts[id];
+            int found = packed & 0xFF;
+            int inModel = (packed >>> 8) & 0xFF;
+            boolean maybePrefix = (packed >>> 16) == wordStart.length;
+            double containment = (double) found / qGrams.length;
+            boolean fuzzy = !prefixOnly && containment >= MIN_CONTAINMENT;
+            if (!maybePrefix && !fuzzy) continue;
+            int n = c.size++;
+            c.ids[n] = id;
+            c.score[n] = 0.7 * containment + 0.3 * (2.0 * inModel / (qGrams.length + (modelGramCount[id] & 0xFF)));
+            c.maybePrefix[n] = maybePrefix;
+            c.fuzzy[n] = fuzzy;
+        }
+        return select(c, q, limit);
+    }
+
+    // Walks the list of every query trigram, counting per laptop the query trigrams it holds
+    // (in any field), those in its model, and the word-start ones; returns the ids seen
+    private Ids count(int[] qGrams, int[] wordStart) {
+        if (seen.length < byId.length) {
+            seen = new int[byId.length];
+            counts = new int[byId.length];
+            lastGram = new int[byId.length];
+        }
+        int query = nextStamp();
+        Ids touched = new Ids();
+        for (int g : qGrams) {
+            int add = 1 | (Arrays.binarySearch(wordStart, g) >= 0 ? 1 << 16 : 0);
+            int gramMark = nextStamp();
+            Ids list = modelPostings[g];
+            if (list != null) {
+                for (int i = 0; i < list.size; i++) {
+                    int id = list.a[i];
+                    if (byId[id] == null) continue;
+                    if (seen[id] != query) {
+                        seen[id] = query;
+                        counts[id] = 0;
+                        touched.add(id);
+                    }
+                    counts[id] += add | 1 << 8;
+                    lastGram[id] = gramMark;
+                }
+            }
+            for (Map<String, Group> groups : List.of(brands, processors)) {
+                for (Group group : groups.values()) {
+                    if (group.live == 0 || !contains(group.grams, g)) continue;
+                    for (int i = 0; i < group.ids.size; i++) {
+                        int id = group.ids.a[i];
+                        if (byId[id] == null || lastGram[id] == gramMark) continue;
+                        if (seen[id] != query) {
+                            seen[id] = query;
+                            counts[id] = 0;
+                            touched.add(id);
+                        }
+                        counts[id] += add;
+                        lastGram[id] = gramMark;
+                    }
+                }
+            }
+        }
+        return touched;
+    }
+
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(lastGram, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private static boolean contains(int[] grams, int gram) {
+        return Arrays.binarySearch(grams, gram) >= 0;
+    }
+
+    // Top results, checking the text of possible prefix matches only when they would make the
+    // cut; after a few rounds of misses every remaining one is checked
+    private List<Laptop> select(Candidates c, String q, int limit) {
+        String wordPrefix = " " + q;
+        for (int round = 0; ; round++) {
+            if (round == VERIFY_ROUNDS) {
+                for (int i = 0; i < c.size; i++) {
+                    if (c.maybePrefix[i]) verify(c, i, wordPrefix);
+                }
+            }
+            int[] top = top(c, limit);
+            boolean missed = false;
+            for (int i : top) {
+                if (c.maybePrefix[i] && !verify(c, i, wordPrefix)) missed = true;
+            }
+            if (!missed) {
+                List<Laptop> out = new ArrayList<>(top.length);
+                for (int i : top) out.add(byId[c.ids[i]]);
+                return out;
+            }
+        }
+    }
+
+    private boolean verify(Candidates c, int i, String wordPrefix) {
+        Laptop l = byId[c.ids[i]];
+        String text = " " + normalize(l.getModel()) + " " + normalize(l.getBrand()) + " " + normalize(l.getProcessor());
+        c.maybePrefix[i] = false;
+        c.prefix[i] = text.contains(wordPrefix);
+        return c.prefix[i];
+    }
+
+    // Indexes of the best `limit` candidates still in the running, best first
+    private int[] top(Candidates c, int limit) {
+        Comparator<Integer> worstFirst = (a, b) -> {
+            int r = Double.compare(c.rank(a), c.rank(b));
+            if (r != 0) return r;
+            String ma = byId[c.ids[a]].getModel();
+            String mb = byId[c.ids[b]].getModel();
+            r = Integer.compare(mb.length(), ma.length());
+            return (r != 0) ? r : mb.compareToIgnoreCase(ma);
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, worstFirst);
+        for (int i = 0; i < c.size; i++) {
+            if (!c.prefix[i] && !c.maybePrefix[i] && !c.fuzzy[i]) continue;
+            if (best.size() < limit) {
+                best.add(i);
+            } else if (worstFirst.compare(i, best.peek()) > 0) {
+                best.poll();
+                best.add(i);
+            }
+        }
+        int[] out = new int[best.size()];
+        for (int i = out.length - 1; i >= 0; i--) out[i] = best.poll();
+        return out;
+    }
+}
@@ -0,0 +1,221 @@
+package OOP_JAVA_25-26.Laptopmanagementsystem;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Versioned copy of the inventory (laptop + quantity per row, in insertion order) that hands
+// out immutable snapshots. Rows live in chunks of 1024; a snapshot copies only the chunk
+// pointers, and a chunk is copied the first time a change touches it after a snapshot was
+// taken (copy-on-write). Taking a snapshot is O(n / 1024) and changes stay O(1), so reports,
+// listings and saves read a consistent version while writers carry on.
+//
+// Changes must come from one thread at a time with no snapshot being taken (LaptopManagementSystem
+// holds its write lock). Snapshots may be taken side by side under its read lock and read from
+// any thread. Removed rows leave a hole that is skipped until holes
+// outnumber live rows, then the rows are packed again.
+public class VersionedInventory implements InventoryListener {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK = 1 << CHUNK_SHIFT;
+    private static final int MASK = CHUNK - 1;
+
+    private static final class Chunk {
+        final Laptop[] laptops;
+        final int[] quantities;
+        final long epoch;   // a chunk may only be changed in place during the epoch that made it
+
+        Chunk(Laptop[] laptops, int[] quantities, long epoch) {
+            this.laptops = laptops;
+            this.quantities = quantities;
+            this.epoch = epoch;
+        }
+    }
+
+    private Chunk[] chunks = new Chunk[16];
+    private int end;            // rows in use, holes included
+    private int live;
+    private final Map<Laptop, Integer> rows = new HashMap<>();
+    private long epoch;         // bumped by every snapshot
+    private long version;       // bumped by every change
+    private volatile Snapshot latest = new Snapshot(new Chunk[0], 0, 0, 0);
+
+    @Override
+    public void laptopAdded(Laptop laptop) {
+        if (rows.containsKey(laptop)) return;
+        if (end == chunks.length << CHUNK_SHIFT) chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        int row = end++;
+        Chunk c = writable(row);
+        c.laptops[row & MASK] = laptop;
+        c.quantities[row & MASK] = laptop.getQuantity();
+        rows.put(laptop, row);
+        live++;
+        version++;
+    }
+
+    @Override
+    public void laptopRemoved(Laptop laptop) {
+        Integer row = rows.remove(laptop);
+        if (row == null) return;
+        Chunk c = writable(row);
+        c.laptops[row & MASK] = null;
+        c.quantities[row & MASK] = 0;
+        live--;
+        version++;
+        if (end - live > live && end - live > CHUNK) pack();
+    }
+
+    @Override
+    public void quantityChanged(Laptop laptop, int oldQuantity, int newQuantity) {
+        Integer row = rows.get(laptop);
+        if (row == null) return;
+        // the laptop's current value, so changes reported out of order still end up right
+        writable(row).quantities[row & MASK] = laptop.getQuantity();
+        version++;
+    }
+
+    // The chunk holding row, copied first if a snapshot may still be reading it
+    private Chunk writable(int row) {
+        int ci = row >>> CHUNK_SHIFT;
+        Chunk c = chunks[ci];
+        if (c == null) {
+            c = new Chunk(new Laptop[CHUNK], new int[CHUNK], epoch);
+            chunks[ci] = c;
+        } else if (c.epoch != epoch) {
+            c = new Chunk(c.laptops.clone(), c.quantities.clone(), epoch);
+            chunks[ci] = c;
+        }
+        return c;
+    }
+
+    // Moves the live rows to the front, keeping their order; old chunks stay with old snapshots
+    private void pack() {
+        Chunk[] packed = new Chunk[Math.max(16, Integer.highestOneBit(Math.max(1, live)) >> (CHUNK_SHIFT - 1))];
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            Chunk src = chunks[from >>> CHUNK_SHIFT];
+            Laptop l = src.laptops[from & MASK];
+            if (l == null) continue;
+            int ci = to >>> CHUNK_SHIFT;
+            if (packed[ci] == null) packed[ci] = new Chunk(new Laptop[CHUNK], new int[CHUNK], epoch);
+            packed[ci].laptops[to & MASK] = l;
+            packed[ci].quantities[to & MASK] = src.quantities[from & MASK];
+            rows.put(l, to++);
+        }
+        chunks = packed;
+        end = to;
+    }
+
+    public int size() {
+        return live;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    // The current version; unchanged data returns the previous snapshot
+    public synchronized Snapshot snapshot() {
+        Snapshot s = latest;
+        if (s.version == version) return s;
+        epoch++;
+        s = new Snapshot(Arrays.copyOf(chunks, (end + MASK) >>> CHUNK_SHIFT), end, live, version);
+        latest = s;
+        return s;
+    }
+
+    public void clear() {
+        chunks = new Chunk[16];
+        end = 0;
+        live = 0;
+        rows.clear();
+        epoch++;
+        version++;
+    }
+
+    // --- Snapshot ---
+    // An immutable version of the inventory. Laptops handed out are copies carrying the quantity
+    // of this version, so later stock changes do not show through.
+    public final class Snapshot {
+        private final Chunk[] chunks;
+        private final int end;
+        private final int size;
+        private final long version;
+
+        private Snapshot(Chunk[] chunks, int end, int size, long version) {
+            this.chunks = chunks;
+            this.end = end;
+            this.size = size;
+            this.version = version;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private Laptop laptopAt(int row) {
+            return chunks[row >>> CHUNK_SHIFT].laptops[row & MASK];
+        }
+
+        private int quantityAt(int row) {
+            return chunks[row >>> CHUNK_SHIFT].quantities[row & MASK];
+        }
+
+        private Laptop viewAt(int row) {
+            return new Laptop(laptopAt(row), quantityAt(row));
+        }
+
+        // The laptops in this version, in insertion order (live objects; only their
+        // quantities can change, so use quantities() or views() for stock)
+        public List<Laptop> laptops() {
+            Laptop[] out = new Laptop[size];
+            int n = 0;
+            for (int row = 0; row < end; row++) {
+                Laptop l = laptopAt(row);
+                if (l != null) out[n++] = l;
+            }
+            return Collections.unmodifiableList(Arrays.asList(out));
+        }
+
+        // Stock per laptop, in the same order as laptops()
+        public int[] quantities() {
+            int[] out = new int[size];
+            int n = 0;
+            for (int row = 0; row < end; row++) {
+                if (laptopAt(row) != null) out[n++] = quantityAt(row);
+            }
+            return out;
+        }
+
+        // Frozen copies of the laptops in insertion order, made as they are iterated
+        public Iterable<Laptop> views() {
+            return () -> new Iterator<Laptop>() {
+                private int row = skipHoles(0);
+
+                private int skipHoles(int r) {
+                    while (r < end && laptopAt(r) == null) r++;
+                    return r;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return row < end;
+                }
+
+                @Override
+                public Laptop next() {
+                    if (row >= end) throw new NoSuchElementException();
+                    Laptop view = viewAt(row);
+                    row = skipHoles(row + 1);
+                    return view;
+                }
+            };
+        }
+    }
+}
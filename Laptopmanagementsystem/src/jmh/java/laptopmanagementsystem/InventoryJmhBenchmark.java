@@ -0,0 +1,168 @@
+package laptopmanagementsystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// JMH benchmarks for the inventory hot paths at 10^3..10^7 laptops. Each trial builds the
+// synthetic inventory of InventoryBenchmark.generate in a temporary data folder. Queries that
+// LaptopManagementSystem caches run with the query cache off, so they time the indexes; the
+// stock value scans compare the storage layouts (Laptop objects, columns, off-heap rows).
+//
+// Run through the build: gradle jmh (options in build.gradle).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class InventoryJmhBenchmark {
+    private static final String[] BRANDS = {"Dell", "HP", "Lenovo", "Asus", "Acer", "Apple", "MSI", "Samsung"};
+    private static final int INPUTS = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private Path dir;
+    private Path csvDir;
+    private LaptopManagementSystem system;
+    private ColumnarInventory columns;
+    private OffHeapInventory offHeap;
+    private final String[] models = new String[INPUTS];
+    private final String[] processors = new String[INPUTS];
+    private PrintStream console;
+
+    // Each thread walks its own way through the inputs, so no call repeats the previous one
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            return next++ & (INPUTS - 1);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // the "Loaded N laptop(s)" lines would otherwise be printed on every load
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        dir = Files.createTempDirectory("lms-jmh-");
+        List<Laptop> data = InventoryBenchmark.generate(size, 42);
+        system = new LaptopManagementSystem(dir);
+        system.applyInBulk(() -> data.forEach(system::addLaptop));
+        system.getQueryCache().setMaxEntries(0);
+        csvDir = Files.createDirectories(dir.resolve("csv-only"));
+        Files.copy(dir.resolve("laptops.csv"), csvDir.resolve("laptops.csv"));
+
+        Random rnd = new Random(7);
+        for (int i = 0; i < INPUTS; i++) {
+            Laptop l = data.get(rnd.nextInt(size));
+            models[i] = l.getModel().toUpperCase();
+            processors[i] = l.getProcessor();
+        }
+        columns = ColumnarInventory.of(data);
+        offHeap = new OffHeapInventory(size);
+        data.forEach(offHeap::add);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        system.close();
+        offHeap = null;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+        System.setOut(console);
+    }
+
+    private static int load(Path dataDir) {
+        LaptopManagementSystem loaded = new LaptopManagementSystem(dataDir);
+        loaded.close();
+        return loaded.size();
+    }
+
+    @Benchmark
+    public int loadFromFileBinary() {
+        return load(dir);
+    }
+
+    @Benchmark
+    public int loadFromFileCsv() {
+        return load(csvDir);
+    }
+
+    @Benchmark
+    public void saveToFile() throws IOException {
+        system.save();
+    }
+
+    @Benchmark
+    public Laptop modelLookup(Cursor c) {
+        return system.findByModel(models[c.next()]);
+    }
+
+    @Benchmark
+    public long brandSearch(Cursor c) {
+        long units = 0;
+        for (Laptop l : system.findByBrand(BRANDS[c.next() % BRANDS.length])) units += l.getQuantity();
+        return units;
+    }
+
+    @Benchmark
+    public long priceSort() {
+        long ram = 0;
+        for (Laptop l : system.laptopsByPrice()) ram += l.getRam();
+        return ram;
+    }
+
+    @Benchmark
+    public double generateReport() {
+        return system.getTotals().getStockValue();
+    }
+
+    @Benchmark
+    public String compareProcessorPerformance(Cursor c) {
+        int i = c.next();
+        return system.compareProcessorPerformance(processors[i], processors[(i + 1) & (INPUTS - 1)]);
+    }
+
+    // --- Storage layouts: one full stock value scan each ---
+    @Benchmark
+    public long stockValueScanObjects() {
+        long cents = 0;
+        for (Laptop l : system.snapshot().views()) cents += InventoryStats.toCents(l.getPrice()) * l.getQuantity();
+        return cents;
+    }
+
+    @Benchmark
+    public long stockValueScanColumnar() {
+        return columns.totalStockValueCents();
+    }
+
+    @Benchmark
+    public long stockValueScanOffHeap() {
+        return offHeap.totalStockValueCents();
+    }
+}